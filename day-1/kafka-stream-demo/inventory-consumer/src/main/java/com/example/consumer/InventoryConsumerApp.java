@@ -1,8 +1,10 @@
 package com.example.consumer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.Message;
 import java.util.function.Consumer;
 
 @SpringBootApplication
@@ -12,8 +14,12 @@ public class InventoryConsumerApp {
   }
 
   @Bean
-  public Consumer<OrderCreated> orders() {
-    return order -> System.out.println("📦 Received: " + order);
+  public Consumer<Message<OrderCreated>> orders(LatencyTracker latency,
+                                                @Value("${app.print-orders:true}") boolean print) {
+    return message -> {
+      latency.record(message);
+      if (print) System.out.println("📦 Received: " + message.getPayload()); // turn off under load: stdout skews latency
+    };
   }
 
   public record OrderCreated(String orderId, String item) {}
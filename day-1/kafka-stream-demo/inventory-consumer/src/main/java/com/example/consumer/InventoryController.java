@@ -0,0 +1,29 @@
+package com.example.consumer;
+
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.cloud.stream.binder.kafka.streams.InteractiveQueryService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Answers from the local state store only; unknown items have a count of 0. */
+@RestController
+public class InventoryController {
+
+  public record InventoryCount(String item, long count) {}
+
+  private final InteractiveQueryService queries;
+
+  public InventoryController(InteractiveQueryService queries) {
+    this.queries = queries;
+  }
+
+  @GetMapping("/api/inventory/{item}")
+  public InventoryCount count(@PathVariable String item) {
+    ReadOnlyKeyValueStore<String, Long> store =
+        queries.getQueryableStore(InventoryProjection.STORE, QueryableStoreTypes.keyValueStore());
+    Long count = store.get(item);
+    return new InventoryCount(item, count == null ? 0 : count);
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.consumer;
+
+import com.example.consumer.InventoryConsumerApp.OrderCreated;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+/**
+ * Per-item order counts, bound to {@code orders-topic} by the Kafka Streams binder next to the {@code orders}
+ * consumer. Counts live in a local RocksDB store backed by a changelog topic; with {@code exactly_once_v2}
+ * input offsets, changelog writes and the store commit in one transaction, and a restart restores the store
+ * from its checkpoint plus the changelog tail instead of re-reading the topic.
+ */
+@Configuration
+public class InventoryProjection {
+
+  static final String STORE = "inventory-counts";
+
+  @Bean
+  public Consumer<KStream<String, OrderCreated>> inventory() {
+    return orders -> orders
+        .filter((key, order) -> order != null && order.item() != null)
+        .map((key, order) -> KeyValue.pair(order.item(), order.orderId()))
+        .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+        .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(STORE)
+            .withKeySerde(Serdes.String())
+            .withValueSerde(Serdes.Long()));
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.consumer;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class LatencyController {
+
+  private final LatencyTracker tracker;
+
+  public LatencyController(LatencyTracker tracker) {
+    this.tracker = tracker;
+  }
+
+  /** {@code ?reset=true} returns the current report and starts a new measurement window. */
+  @GetMapping("/latency")
+  public Map<String, Object> latency(@RequestParam(defaultValue = "false") boolean reset) {
+    return tracker.report(reset);
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency (producer send time to consumer receipt) and per-producer sequence checks for
+ * messages stamped by the order producer. Latency uses wall clocks on both sides, so producer and
+ * consumer must share a clock (same host, or NTP-synced hosts with skew well below the SLO); a negative
+ * difference is recorded as 0 and counted in {@code orders_e2e_clock_skew_total}.
+ */
+@Component
+public class LatencyTracker {
+
+  static final String PRODUCER_ID = "order-producer-id";
+  static final String SEQUENCE = "order-seq";
+  static final String SENT_AT = "order-sent-at-us";
+
+  private final Recorder recorder = new Recorder(3);
+  private final Histogram total = new Histogram(3);
+  private final Map<String, SequenceTracker> producers = new ConcurrentHashMap<>();
+  private final Timer latency;
+  private final Counter duplicates;
+  private final Counter reordered;
+  private final Counter unstamped;
+  private final Counter clockSkew;
+  private Instant since = Instant.now();
+
+  public LatencyTracker(MeterRegistry registry) {
+    this.latency = Timer.builder("orders_e2e_latency")
+        .description("Producer send to consumer receipt")
+        .publishPercentiles(0.5, 0.99, 0.999)
+        .publishPercentileHistogram()
+        .register(registry);
+    this.duplicates = Counter.builder("orders_duplicates_total").register(registry);
+    this.reordered = Counter.builder("orders_reordered_total")
+        .description("Messages that arrived after a higher sequence from the same producer").register(registry);
+    this.unstamped = Counter.builder("orders_unstamped_total")
+        .description("Messages without producer id, sequence or send time headers").register(registry);
+    this.clockSkew = Counter.builder("orders_e2e_clock_skew_total")
+        .description("Messages received before their send time").register(registry);
+    Gauge.builder("orders_sequence_missing", producers,
+            p -> p.values().stream().mapToLong(t -> t.snapshot().missing()).sum())
+        .description("Sequences skipped and not (yet) received, over all producers").register(registry);
+  }
+
+  public void record(Message<?> message) {
+    MessageHeaders headers = message.getHeaders();
+    Long sentAt = longHeader(headers, SENT_AT);
+    Long seq = longHeader(headers, SEQUENCE);
+    Object producer = headers.get(PRODUCER_ID);
+    if (sentAt == null || seq == null || producer == null) {
+      unstamped.increment();
+      return;
+    }
+    long micros = nowMicros() - sentAt;
+    if (micros < 0) {
+      clockSkew.increment();
+      micros = 0;
+    }
+    recorder.recordValue(micros);
+    latency.record(micros, TimeUnit.MICROSECONDS);
+
+    String id = producer instanceof byte[] b ? new String(b, StandardCharsets.UTF_8) : producer.toString();
+    switch (producers.computeIfAbsent(id, k -> new SequenceTracker()).accept(seq)) {
+      case DUPLICATE -> duplicates.increment();
+      case REORDERED -> reordered.increment();
+      default -> { }
+    }
+  }
+
+  /** Latency percentiles in milliseconds since start or the last reset, plus sequence stats per producer. */
+  public synchronized Map<String, Object> report(boolean reset) {
+    total.add(recorder.getIntervalHistogram());
+    Map<String, Object> latencyMs = new LinkedHashMap<>();
+    latencyMs.put("count", total.getTotalCount());
+    latencyMs.put("p50", total.getValueAtPercentile(50) / 1e3);
+    latencyMs.put("p90", total.getValueAtPercentile(90) / 1e3);
+    latencyMs.put("p99", total.getValueAtPercentile(99) / 1e3);
+    latencyMs.put("p999", total.getValueAtPercentile(99.9) / 1e3);
+    latencyMs.put("max", total.getMaxValue() / 1e3);
+    latencyMs.put("mean", total.getMean() / 1e3);
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("since", since.toString());
+    report.put("windowSeconds", Duration.between(since, Instant.now()).toSeconds());
+    report.put("latencyMs", latencyMs);
+    Map<String, SequenceTracker.Snapshot> sequences = new LinkedHashMap<>();
+    producers.forEach((id, tracker) -> sequences.put(id, tracker.snapshot()));
+    report.put("producers", sequences);
+    if (reset) {
+      total.reset();
+      producers.clear();
+      since = Instant.now();
+    }
+    return report;
+  }
+
+  private static long nowMicros() {
+    Instant now = Instant.now();
+    return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+  }
+
+  /** Headers arrive as numbers (Rabbit, typed Kafka headers) or as text/bytes (raw Kafka headers). */
+  private static Long longHeader(MessageHeaders headers, String name) {
+    Object value = headers.get(name);
+    if (value instanceof Number n) return n.longValue();
+    if (value instanceof byte[] b) value = new String(b, StandardCharsets.UTF_8);
+    if (value instanceof String s) {
+      try {
+        return Long.parseLong(s.trim());
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+}
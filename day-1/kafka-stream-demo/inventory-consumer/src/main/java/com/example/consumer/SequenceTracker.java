@@ -0,0 +1,62 @@
+package com.example.consumer;
+
+import java.util.BitSet;
+
+/**
+ * Sequence bookkeeping for one producer. The first message seen sets the baseline, so a consumer that
+ * starts mid-stream does not report everything before it as lost. Sequences within {@link #WINDOW} of
+ * the highest one are remembered: a repeat is a duplicate, and a late arrival fills its gap and counts as
+ * reordered. Anything older than the window or the baseline is counted as {@code late} because it cannot
+ * be classified.
+ */
+class SequenceTracker {
+
+  static final int WINDOW = 1 << 16;
+
+  private final BitSet seen = new BitSet(WINDOW);
+  private long baseline = -1;
+  private long highest = -1;
+  private long received, missing, duplicates, reordered, late;
+
+  enum Outcome { FIRST, NEXT, GAP, DUPLICATE, REORDERED, LATE }
+
+  record Snapshot(long received, long highestSequence, long missing, long duplicates, long reordered, long late) {}
+
+  synchronized Outcome accept(long seq) {
+    received++;
+    if (highest < 0) {
+      baseline = highest = seq;
+      seen.set(slot(seq));
+      return Outcome.FIRST;
+    }
+    if (seq > highest) {
+      long gap = seq - highest - 1;
+      if (gap >= WINDOW) seen.clear();
+      else for (long s = highest + 1; s < seq; s++) seen.clear(slot(s));
+      seen.set(slot(seq));
+      highest = seq;
+      missing += gap;
+      return gap == 0 ? Outcome.NEXT : Outcome.GAP;
+    }
+    if (seq < baseline || highest - seq >= WINDOW) {
+      late++;
+      return Outcome.LATE;
+    }
+    if (seen.get(slot(seq))) {
+      duplicates++;
+      return Outcome.DUPLICATE;
+    }
+    seen.set(slot(seq));
+    reordered++;
+    missing--;
+    return Outcome.REORDERED;
+  }
+
+  synchronized Snapshot snapshot() {
+    return new Snapshot(received, highest, missing, duplicates, reordered, late);
+  }
+
+  private static int slot(long seq) {
+    return (int) (seq & (WINDOW - 1));
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.producer;
+
+import com.example.producer.OrderProducerApp.OrderCreated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds outgoing order messages with the headers the consumer measures against: this producer's id,
+ * a per-producer sequence number starting at 0, and the send time in epoch microseconds.
+ */
+@Component
+public class OrderMessages {
+
+  public static final String PRODUCER_ID = "order-producer-id";
+  public static final String SEQUENCE = "order-seq";
+  public static final String SENT_AT = "order-sent-at-us";
+
+  private final String producerId;
+  private final AtomicLong sequence = new AtomicLong();
+
+  public OrderMessages(@Value("${app.producer-id:${spring.application.name}-${random.uuid}}") String producerId) {
+    this.producerId = producerId;
+  }
+
+  public MessageBuilder<OrderCreated> builder(OrderCreated order) {
+    Instant now = Instant.now();
+    return MessageBuilder.withPayload(order)
+        .setHeader(PRODUCER_ID, producerId)
+        .setHeader(SEQUENCE, sequence.getAndIncrement())
+        .setHeader(SENT_AT, now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000);
+  }
+}
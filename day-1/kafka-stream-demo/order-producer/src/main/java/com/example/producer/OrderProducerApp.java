@@ -1,9 +1,9 @@
 package com.example.producer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.cloud.stream.function.StreamBridge;
@@ -13,7 +13,14 @@ import org.springframework.cloud.stream.function.StreamBridge;
 public class OrderProducerApp {
 
   private final StreamBridge bridge;
-  public OrderProducerApp(StreamBridge bridge) { this.bridge = bridge; }
+  private final OrderMessages messages;
+  public OrderProducerApp(StreamBridge bridge, OrderMessages messages) {
+    this.bridge = bridge;
+    this.messages = messages;
+  }
+
+  @Value("${app.load.enabled:false}")
+  private boolean loadMode; // LoadGenerator drives the binding instead
 
   public static void main(String[] args) {
     SpringApplication.run(OrderProducerApp.class, args);
@@ -21,8 +28,9 @@ public class OrderProducerApp {
 
   @Scheduled(fixedRate = 5000)
   void sendOrder() {
+    if (loadMode) return;
     var order = new OrderCreated("ORD-" + System.currentTimeMillis(), "Laptop");
-    bridge.send("orders-out-0", MessageBuilder.withPayload(order).build());
+    bridge.send("orders-out-0", messages.builder(order).build());
     System.out.println("✅ Sent: " + order);
   }
 
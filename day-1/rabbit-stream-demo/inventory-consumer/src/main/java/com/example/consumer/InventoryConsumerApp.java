@@ -1,8 +1,12 @@
 package com.example.consumer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.Message;
+import java.util.List;
 import java.util.function.Consumer;
 
 @SpringBootApplication
@@ -12,8 +16,27 @@ public class InventoryConsumerApp {
   }
 
   @Bean
-  public Consumer<OrderCreated> orders() {
-    return order -> System.out.println("📦 Received: " + order);
+  public Consumer<Message<OrderCreated>> orders(LatencyTracker latency,
+                                                @Value("${app.print-orders:true}") boolean print) {
+    return message -> {
+      latency.record(message);
+      process(message.getPayload(), print); // turn off printing under load: stdout skews latency
+    };
+  }
+
+  /** Batch mode ({@code batch} profile), bound to the same {@code orders-in-0} binding. */
+  @Bean
+  public Consumer<Message<List<OrderCreated>>> ordersBatch(LatencyTracker latency, MeterRegistry registry,
+                                                           @Value("${app.print-orders:true}") boolean print) {
+    return new OrderBatchConsumer(order -> process(order, print), latency, registry);
+  }
+
+  /** Per-order work shared by both modes; an exception sends the order to the DLQ. */
+  static void process(OrderCreated order, boolean print) {
+    if (order.orderId() == null || order.item() == null || order.item().isBlank()) {
+      throw new IllegalArgumentException("Incomplete order: " + order);
+    }
+    if (print) System.out.println("📦 Received: " + order);
   }
 
   public record OrderCreated(String orderId, String item) {}
@@ -0,0 +1,111 @@
+package com.example.consumer;
+
+import com.example.consumer.InventoryConsumerApp.OrderCreated;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Handles a batch of orders with one acknowledgement. With AUTO acks the container can only ack or reject
+ * a whole batch, so one bad order would send its healthy neighbours to the DLQ too; the binding runs with
+ * MANUAL acks instead. Each failed order is nacked without requeue, so the broker dead-letters just that
+ * message to the DLQ bound by {@code autoBindDlq}, and one multiple-ack then covers every order that
+ * succeeded.
+ * <p>
+ * The batch is always settled here: if anything else fails part-way (a broker call, a metric), the orders
+ * that succeeded are acked and every delivery still outstanding is dead-lettered with one multiple-nack up
+ * to the batch's last tag. The failure is not rethrown, because the binder's {@code republishToDlq} handler
+ * would ack only that last tag, leaving the other deliveries unacked until the prefetch runs out or the
+ * channel closes. A batch that fails to convert never reaches this consumer and is not covered by this.
+ */
+class OrderBatchConsumer implements Consumer<Message<List<OrderCreated>>> {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderBatchConsumer.class);
+
+  private final Consumer<OrderCreated> process;
+  private final LatencyTracker latency;
+  private final Timer batchTimer;
+  private final DistributionSummary batchSize;
+  private final Counter deadLettered;
+
+  OrderBatchConsumer(Consumer<OrderCreated> process, LatencyTracker latency, MeterRegistry registry) {
+    this.process = process;
+    this.latency = latency;
+    this.batchTimer = Timer.builder("orders_batch_processing").register(registry);
+    this.batchSize = DistributionSummary.builder("orders_batch_size").register(registry);
+    this.deadLettered = Counter.builder("orders_dead_lettered_total")
+        .description("Orders nacked from a batch into the DLQ").register(registry);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void accept(Message<List<OrderCreated>> batch) {
+    MessageHeaders headers = batch.getHeaders();
+    Channel channel = headers.get(AmqpHeaders.CHANNEL, Channel.class);
+    Long lastTag = headers.get(AmqpHeaders.DELIVERY_TAG, Long.class);
+    List<Map<String, Object>> elementHeaders =
+        headers.get(AmqpInboundChannelAdapter.CONSOLIDATED_HEADERS, List.class);
+    if (channel == null || lastTag == null || elementHeaders == null) {
+      throw new IllegalStateException("ordersBatch needs batch-mode, enableBatching and acknowledgeMode MANUAL"
+          + " on orders-in-0 (see application-batch.yml)");
+    }
+    List<OrderCreated> orders = batch.getPayload();
+    batchSize.record(orders.size());
+    batchTimer.record(() -> {
+      long lastOk = -1;
+      int settled = 0;
+      try {
+        for (int i = 0; i < orders.size(); i++) {
+          long tag = (Long) elementHeaders.get(i).get(AmqpHeaders.DELIVERY_TAG);
+          boolean ok;
+          try {
+            process.accept(orders.get(i));
+            ok = true;
+          } catch (RuntimeException e) {
+            log.warn("Dead-lettering {}: {}", orders.get(i), e.toString());
+            ok = false;
+          }
+          if (ok) {
+            lastOk = Math.max(lastOk, tag);
+            settled++;
+            latency.record(elementHeaders.get(i));
+          } else {
+            channel.basicNack(tag, false, false);
+            settled++;
+            deadLettered.increment();
+          }
+        }
+        // covers every outstanding tag up to lastOk; the nacked ones are no longer outstanding
+        if (lastOk >= 0) channel.basicAck(lastOk, true);
+      } catch (IOException | RuntimeException e) {
+        abandon(channel, lastOk, lastTag, orders.size() - settled, e);
+      }
+    });
+  }
+
+  /** Settles what is left of a batch that failed outside per-order handling; never throws. */
+  private void abandon(Channel channel, long lastOk, long lastTag, int unsettled, Exception cause) {
+    log.error("Batch up to tag {} failed, dead-lettering {} unsettled orders: {}", lastTag, unsettled, cause.toString());
+    try {
+      if (lastOk >= 0) channel.basicAck(lastOk, true);
+      if (lastTag > lastOk) channel.basicNack(lastTag, true, false);
+      deadLettered.increment(unsettled);
+    } catch (IOException | RuntimeException e) {
+      log.error("Could not settle batch up to tag {}, the broker redelivers it when the channel closes: {}",
+          lastTag, e.toString());
+    }
+  }
+}
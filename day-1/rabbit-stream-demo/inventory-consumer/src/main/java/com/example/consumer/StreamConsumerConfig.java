@@ -0,0 +1,66 @@
+package com.example.consumer;
+
+import com.rabbitmq.stream.OffsetSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.rabbit.stream.listener.StreamListenerContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@code stream} profile: {@code orders-in-0} reads the {@code orders-stream} log over the stream protocol.
+ * Each logical consumer group is a {@code consumer-name} whose offset the broker stores, so another group
+ * costs an offset rather than another copy of every message. On restart a name resumes after its stored
+ * offset; a new name starts at {@code initial-offset}. {@code replay-from} re-reads the log from a point
+ * in time under a throwaway name, without moving the group's stored offset.
+ */
+@Configuration
+@Profile("stream")
+public class StreamConsumerConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(StreamConsumerConfig.class);
+
+  @Bean
+  ListenerContainerCustomizer<MessageListenerContainer> streamOffsets(
+      @Value("${app.stream.consumer-name:${spring.application.name}}") String consumerName,
+      @Value("${app.stream.initial-offset:first}") String initialOffset,
+      @Value("${app.stream.commit-every:10000}") int commitEvery,
+      @Value("${app.stream.commit-interval:5s}") Duration commitInterval,
+      @Value("${app.stream.replay-from:}") String replayFrom) {
+    OffsetSpecification initial = offset(initialOffset);
+    Instant replay = replayFrom.isBlank() ? null : Instant.parse(replayFrom);
+    return (container, destination, group) -> {
+      if (!(container instanceof StreamListenerContainer stream)) return;
+      stream.setConsumerCustomizer((id, builder) -> {
+        if (replay != null) {
+          log.info("Replaying {} from {}; offsets of '{}' are left untouched", destination, replay, consumerName);
+          builder.name(consumerName + "-replay-" + replay.toEpochMilli())
+              .offset(OffsetSpecification.timestamp(replay.toEpochMilli()))
+              .noTrackingStrategy();
+        } else {
+          builder.name(consumerName)
+              .offset(initial)
+              .autoTrackingStrategy()
+              .messageCountBeforeStorage(commitEvery)
+              .flushInterval(commitInterval);
+        }
+      });
+    };
+  }
+
+  private static OffsetSpecification offset(String spec) {
+    return switch (spec) {
+      case "first" -> OffsetSpecification.first();
+      case "last" -> OffsetSpecification.last();
+      case "next" -> OffsetSpecification.next();
+      default -> OffsetSpecification.offset(Long.parseLong(spec));
+    };
+  }
+}
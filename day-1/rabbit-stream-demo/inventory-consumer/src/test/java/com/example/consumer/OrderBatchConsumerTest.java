@@ -0,0 +1,115 @@
+package com.example.consumer;
+
+import com.example.consumer.InventoryConsumerApp.OrderCreated;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class OrderBatchConsumerTest {
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private Channel channel;
+  private OrderBatchConsumer consumer;
+
+  @BeforeEach
+  void setUp() {
+    channel = mock(Channel.class);
+    consumer = new OrderBatchConsumer(order -> InventoryConsumerApp.process(order, false),
+        new LatencyTracker(registry), registry);
+  }
+
+  @Test
+  void nacksFailedOrdersAndAcksTheRestOnce() throws IOException {
+    consumer.accept(batch(ok("a"), bad("b"), ok("c"), bad("d")));
+
+    InOrder order = inOrder(channel);
+    order.verify(channel).basicNack(12, false, false);
+    order.verify(channel).basicNack(14, false, false);
+    order.verify(channel).basicAck(13, true);
+    verifyNoMoreInteractions(channel);
+    assertThat(deadLettered()).isEqualTo(2);
+  }
+
+  @Test
+  void deadLettersTheRestOfTheBatchWhenANackFails() throws IOException {
+    doThrow(new IOException("channel closed")).when(channel).basicNack(12, false, false);
+
+    consumer.accept(batch(ok("a"), bad("b"), ok("c"), ok("d")));
+
+    InOrder order = inOrder(channel);
+    order.verify(channel).basicNack(12, false, false);
+    order.verify(channel).basicAck(11, true);
+    order.verify(channel).basicNack(14, true, false);
+    verifyNoMoreInteractions(channel);
+    assertThat(deadLettered()).isEqualTo(3);
+  }
+
+  @Test
+  void retriesTheAckWhenTheFinalAckFails() throws IOException {
+    doThrow(new IOException("timeout")).doNothing().when(channel).basicAck(14, true);
+
+    consumer.accept(batch(ok("a"), ok("b"), ok("c"), ok("d")));
+
+    verify(channel, times(2)).basicAck(14, true);
+    verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    assertThat(deadLettered()).isZero();
+  }
+
+  @Test
+  void doesNotThrowWhenTheBatchCannotBeSettled() throws IOException {
+    doThrow(new IOException("channel closed")).when(channel).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    doThrow(new IOException("channel closed")).when(channel).basicAck(anyLong(), anyBoolean());
+
+    consumer.accept(batch(ok("a"), bad("b")));
+
+    verify(channel).basicAck(11, true);
+  }
+
+  private static OrderCreated ok(String id) {
+    return new OrderCreated(id, "widget");
+  }
+
+  private static OrderCreated bad(String id) {
+    return new OrderCreated(id, "");
+  }
+
+  /** Delivery tags 11, 12, ... in order, as the container consolidates them for one channel. */
+  private Message<List<OrderCreated>> batch(OrderCreated... orders) {
+    List<Map<String, Object>> elementHeaders = new ArrayList<>();
+    for (int i = 0; i < orders.length; i++) {
+      elementHeaders.add(Map.of(AmqpHeaders.DELIVERY_TAG, 11L + i));
+    }
+    return MessageBuilder.withPayload(List.of(orders))
+        .setHeader(AmqpHeaders.CHANNEL, channel)
+        .setHeader(AmqpHeaders.DELIVERY_TAG, 10L + orders.length)
+        .setHeader(AmqpInboundChannelAdapter.CONSOLIDATED_HEADERS, elementHeaders)
+        .build();
+  }
+
+  private double deadLettered() {
+    return registry.get("orders_dead_lettered_total").counter().count();
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.producer;
+
+import com.example.producer.OrderProducerApp.OrderCreated;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load mode ({@code load} profile): sends {@code rate} orders/sec for {@code duration}. After a stall
+ * at most {@code burst} overdue sends go out back-to-back; the rest of the backlog is skipped so the
+ * offered rate stays honest. Every send runs on a virtual thread and waits for the publisher confirm
+ * (the profile enables correlated confirms), with at most {@code max-in-flight} outstanding. With
+ * {@code publisher-confirms=false} the send itself is expected to block until confirmed (stream profile).
+ * Latency is measured from each send's scheduled time to its ack, so time spent waiting for a
+ * {@code max-in-flight} permit or a virtual thread counts (no coordinated omission), and recorded in an
+ * HdrHistogram; msgs/sec and p50/p99/p999 of the last second are exported as gauges. Skipped sends
+ * are counted in {@code load_skipped_total}, and the summary compares the offered and achieved rates.
+ */
+@Component
+@ConditionalOnProperty(name = "app.load.enabled", havingValue = "true")
+public class LoadGenerator implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+  private final StreamBridge bridge;
+  private final OrderMessages messages;
+  private final int rate;
+  private final int burst;
+  private final Duration duration;
+  private final Semaphore inFlight;
+  private final boolean publisherConfirms;
+  private final Recorder latency = new Recorder(3);
+  private final Histogram total = new Histogram(3);
+  private final AtomicLong acked = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+  private long lastReport = System.nanoTime();
+  private volatile double throughput, p50, p99, p999;
+
+  public LoadGenerator(StreamBridge bridge, OrderMessages messages, MeterRegistry registry,
+                       @Value("${app.load.rate:1000}") int rate,
+                       @Value("${app.load.burst:100}") int burst,
+                       @Value("${app.load.duration:60s}") Duration duration,
+                       @Value("${app.load.max-in-flight:1000}") int maxInFlight,
+                       @Value("${app.load.publisher-confirms:true}") boolean publisherConfirms) {
+    this.bridge = bridge;
+    this.messages = messages;
+    this.rate = rate;
+    this.burst = burst;
+    this.duration = duration;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.publisherConfirms = publisherConfirms;
+    Gauge.builder("load_throughput", () -> throughput).description("Acked messages per second").register(registry);
+    Gauge.builder("load_ack_latency_seconds", () -> p50).tag("quantile", "0.5").register(registry);
+    Gauge.builder("load_ack_latency_seconds", () -> p99).tag("quantile", "0.99").register(registry);
+    Gauge.builder("load_ack_latency_seconds", () -> p999).tag("quantile", "0.999").register(registry);
+    FunctionCounter.builder("load_acked_total", acked, AtomicLong::get).register(registry);
+    FunctionCounter.builder("load_failed_total", failed, AtomicLong::get).register(registry);
+    FunctionCounter.builder("load_skipped_total", skipped, AtomicLong::get)
+        .description("Overdue sends dropped beyond the burst allowance").register(registry);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws InterruptedException {
+    log.info("Load run: {} msgs/s, burst {}, for {}", rate, burst, duration);
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+    reporter.scheduleAtFixedRate(this::report, 1, 1, TimeUnit.SECONDS);
+    long seq = 0;
+    long offered = 0;
+    long start = System.nanoTime();
+    try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+      long end = start + duration.toNanos();
+      long scheduled = 0;
+      for (long now = start; now < end; now = System.nanoTime()) {
+        long due = (long) ((now - start) / 1e9 * rate);
+        offered = due;
+        if (due - scheduled > burst) {
+          skipped.addAndGet(due - burst - scheduled);
+          scheduled = due - burst;
+        }
+        if (due == scheduled) {
+          LockSupport.parkNanos(100_000);
+          continue;
+        }
+        for (; scheduled < due; scheduled++) {
+          long intended = start + (long) (scheduled * 1e9 / rate);
+          inFlight.acquire();
+          long n = seq++;
+          senders.execute(() -> send(n, intended));
+        }
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    reporter.shutdown();
+    reporter.awaitTermination(5, TimeUnit.SECONDS);
+    report();
+    log.info("Load run finished: offered {} ({} msgs/s), sent {}, skipped {}, acked {} ({} msgs/s), failed {}; "
+            + "latency from scheduled send p50={}us p99={}us p999={}us max={}us",
+        offered, Math.round(offered / seconds), seq, skipped.get(), acked.get(), Math.round(acked.get() / seconds),
+        failed.get(), total.getValueAtPercentile(50), total.getValueAtPercentile(99),
+        total.getValueAtPercentile(99.9), total.getMaxValue());
+  }
+
+  /** {@code intended} is the nanoTime the send was scheduled for; latency is measured from it. */
+  private void send(long seq, long intended) {
+    try {
+      var order = new OrderCreated("LOAD-" + seq, "Laptop");
+      var message = messages.builder(order);
+      CorrelationData confirm = null;
+      if (publisherConfirms) {
+        confirm = new CorrelationData(order.orderId());
+        message.setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, confirm);
+      }
+      if (bridge.send("orders-out-0", message.build())
+          && (confirm == null || confirm.getFuture().get(30, TimeUnit.SECONDS).isAck())) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+        acked.incrementAndGet();
+      } else {
+        failed.incrementAndGet();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failed.incrementAndGet();
+    } catch (Exception e) {
+      failed.incrementAndGet();
+    } finally {
+      inFlight.release();
+    }
+  }
+
+  private synchronized void report() {
+    long now = System.nanoTime();
+    Histogram interval = latency.getIntervalHistogram();
+    total.add(interval);
+    throughput = interval.getTotalCount() / ((now - lastReport) / 1e9);
+    lastReport = now;
+    p50 = interval.getValueAtPercentile(50) / 1e6;
+    p99 = interval.getValueAtPercentile(99) / 1e6;
+    p999 = interval.getValueAtPercentile(99.9) / 1e6;
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.consumer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads {@code [0x0][int schema version][Avro payload]} records written with any registered schema
+ * version into {@link OrderEvent} via this service's reader schema; writer fields the reader does not
+ * know (such as {@code price}) are skipped. Every registered version is checked against the reader
+ * schema when the deserializer is configured, so an incompatible schema stops the consumer at startup.
+ */
+public class AvroOrderDeserializer implements Deserializer<OrderEvent> {
+
+    static final byte MAGIC = 0x0;
+
+    private FileSchemaRegistry registry;
+    private Schema reader;
+    private final Map<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+
+    /** For Kafka, which configures the instance through {@link #configure}. */
+    public AvroOrderDeserializer() { }
+
+    public AvroOrderDeserializer(String registryDir, int readerVersion) {
+        init(registryDir, readerVersion);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        init(String.valueOf(configs.get("schema.registry.dir")),
+                Integer.parseInt(String.valueOf(configs.get("schema.reader.version"))));
+    }
+
+    private void init(String registryDir, int readerVersion) {
+        registry = new FileSchemaRegistry(registryDir);
+        reader = registry.schema(readerVersion);
+        registry.versions().forEach((version, writer) -> {
+            var result = SchemaCompatibility.checkReaderWriterCompatibility(reader, writer).getResult();
+            if (result.getCompatibility() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+                throw new ConfigException("Reader schema v" + readerVersion + " cannot read writer schema v"
+                        + version + ": " + result.getIncompatibilities());
+            }
+        });
+    }
+
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        if (data == null) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data.length < 1 + Integer.BYTES || buffer.get() != MAGIC) {
+            throw new SerializationException("Record on " + topic + " is not an Avro-framed OrderEvent");
+        }
+        int version = buffer.getInt();
+        GenericDatumReader<GenericRecord> datumReader =
+                readers.computeIfAbsent(version, v -> new GenericDatumReader<>(registry.schema(v), reader));
+        try {
+            GenericRecord record = datumReader.read(null, DecoderFactory.get()
+                    .binaryDecoder(data, buffer.position(), buffer.remaining(), null));
+            return new OrderEvent(String.valueOf(record.get("orderId")), String.valueOf(record.get("item")));
+        } catch (Exception e) {
+            throw new SerializationException("Cannot read OrderEvent written with schema version " + version, e);
+        }
+    }
+}
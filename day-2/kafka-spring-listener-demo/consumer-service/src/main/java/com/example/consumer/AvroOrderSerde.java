@@ -0,0 +1,66 @@
+package com.example.consumer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link OrderEvent} serde for Kafka Streams. Reads any registered version through {@link AvroOrderDeserializer};
+ * writes this service's {@link OrderEvent} with the reader schema, in the same {@code [0x0][int version][payload]}
+ * framing, so anything it writes can be read back by every consumer of the subject.
+ */
+public class AvroOrderSerde implements Serde<OrderEvent> {
+
+    private final int version;
+    private final Schema schema;
+    private final GenericDatumWriter<GenericRecord> writer;
+    private final AvroOrderDeserializer deserializer;
+
+    public AvroOrderSerde(String registryDir, int readerVersion) {
+        this.version = readerVersion;
+        this.schema = new FileSchemaRegistry(registryDir).schema(readerVersion);
+        this.writer = new GenericDatumWriter<>(schema, GenericData.get());
+        this.deserializer = new AvroOrderDeserializer(registryDir, readerVersion);
+    }
+
+    @Override
+    public Serializer<OrderEvent> serializer() {
+        return this::serialize;
+    }
+
+    @Override
+    public Deserializer<OrderEvent> deserializer() {
+        return deserializer;
+    }
+
+    private byte[] serialize(String topic, OrderEvent event) {
+        if (event == null) return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(AvroOrderDeserializer.MAGIC);
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(version).array());
+        try {
+            GenericRecord record = new GenericRecordBuilder(schema)
+                    .set("orderId", event.orderId())
+                    .set("item", event.item())
+                    .build();
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(record, encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Cannot write " + event + " with schema version " + version, e);
+        }
+        return out.toByteArray();
+    }
+}
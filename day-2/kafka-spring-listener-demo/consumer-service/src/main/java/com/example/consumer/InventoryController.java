@@ -0,0 +1,31 @@
+package com.example.consumer;
+
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Answers from the local state store only; unknown items have a count of 0. */
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+
+    public record InventoryCount(String item, long count) { }
+
+    private final KafkaStreamsInteractiveQueryService queries;
+
+    public InventoryController(KafkaStreamsInteractiveQueryService queries) {
+        this.queries = queries;
+    }
+
+    @GetMapping("/{item}")
+    public InventoryCount count(@PathVariable String item) {
+        ReadOnlyKeyValueStore<String, Long> store =
+                queries.retrieveQueryableStore(InventoryProjection.STORE, QueryableStoreTypes.keyValueStore());
+        Long count = store.get(item);
+        return new InventoryCount(item, count == null ? 0 : count);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.consumer;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+
+/**
+ * Per-item order counts, kept in a local RocksDB store under {@code spring.kafka.streams.state-dir}.
+ * Every update is also written to the store's changelog topic, and with {@code exactly_once_v2} the
+ * input offsets, the changelog writes and the store commit in one Kafka transaction. After a restart
+ * the store is restored from its local checkpoint plus the changelog tail, not by re-reading the orders topic.
+ */
+@Configuration
+@EnableKafkaStreams
+public class InventoryProjection {
+
+    static final String STORE = "inventory-counts";
+
+    @Value("${app.topic.name:orders}")
+    private String topicName;
+
+    @Value("${app.schema.registry-dir}")
+    private String schemaDir;
+
+    @Value("${app.schema.reader-version}")
+    private int readerVersion;
+
+    @Bean
+    public KTable<String, Long> inventoryCounts(StreamsBuilder builder) {
+        return builder.stream(topicName, Consumed.with(Serdes.String(), new AvroOrderSerde(schemaDir, readerVersion)))
+                .filter((orderId, event) -> event != null && event.item() != null)
+                .map((orderId, event) -> KeyValue.pair(event.item(), orderId))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+    }
+
+    @Bean
+    public KafkaStreamsInteractiveQueryService inventoryQueries(StreamsBuilderFactoryBean streams) {
+        return new KafkaStreamsInteractiveQueryService(streams);
+    }
+}
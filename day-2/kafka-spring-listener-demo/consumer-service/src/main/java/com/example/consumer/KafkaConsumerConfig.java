@@ -0,0 +1,71 @@
+package com.example.consumer;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${app.topic.name:orders}")
+    private String topicName;
+
+    @Value("${app.topic.partitions:3}")
+    private int partitions; // the DLT mirrors the source partitions
+
+    @Value("${app.consumer.retry.attempts:2}")
+    private long retryAttempts; // redeliveries before a record goes to the DLT
+
+    @Value("${app.consumer.retry.interval-ms:500}")
+    private long retryIntervalMs;
+
+    @Value("${app.schema.registry-dir}")
+    private String schemaDir;
+
+    @Value("${app.schema.reader-version}")
+    private int readerVersion;
+
+    /**
+     * Decodes order values for the listener and the inventory projection. Records are consumed as raw
+     * bytes and decoded here, so a failed record still has its original payload when it goes to the DLT.
+     */
+    @Bean
+    public Deserializer<OrderEvent> orderDeserializer() {
+        return new AvroOrderDeserializer(schemaDir, readerVersion);
+    }
+
+    @Bean
+    public NewTopic ordersDeadLetterTopic() {
+        return TopicBuilder.name(topicName + ".DLT") // DeadLetterPublishingRecoverer's default destination
+                .partitions(partitions)
+                .build();
+    }
+
+    /**
+     * Picked up by the listener container factory. A {@code BatchListenerFailedException} commits the
+     * records before the failed one, retries from there and finally publishes the failed record to the DLT.
+     * Values are the bytes as consumed, so the DLT holds the producer's Avro payload unchanged (including
+     * fields such as {@code price} that this service's reader schema drops). Undecodable records skip the retries.
+     */
+    @Bean
+    public DefaultErrorHandler errorHandler(KafkaProperties properties) {
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(
+                properties.buildProducerProperties(null), new StringSerializer(), new ByteArraySerializer());
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(new KafkaTemplate<>(producerFactory));
+        DefaultErrorHandler handler = new DefaultErrorHandler(recoverer, new FixedBackOff(retryIntervalMs, retryAttempts));
+        handler.addNotRetryableExceptions(SerializationException.class);
+        return handler;
+    }
+}
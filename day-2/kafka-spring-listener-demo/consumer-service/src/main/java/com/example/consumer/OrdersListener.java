@@ -1,26 +1,95 @@
-
 package com.example.consumer;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class OrdersListener {
 
     private static final Logger log = LoggerFactory.getLogger(OrdersListener.class);
 
+    private final MeterRegistry registry;
+    private final Deserializer<OrderEvent> deserializer;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Map<TopicPartition, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    public OrdersListener(MeterRegistry registry, Deserializer<OrderEvent> orderDeserializer) {
+        this.registry = registry;
+        this.deserializer = orderDeserializer;
+        this.batchTimer = Timer.builder("orders_batch_processing")
+                .description("Time to process one polled batch of orders")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("orders_batch_size")
+                .description("Records per polled batch")
+                .register(registry);
+    }
+
+    /**
+     * One call per poll, with one consumer thread per partition. Offsets are committed after the
+     * batch returns; a failing record is reported by index so the records before it still commit.
+     * Values are decoded here rather than by the consumer, so the DLT receives the original bytes.
+     */
     @KafkaListener(
             topics = "${app.topic.name:orders}",
             groupId = "${app.consumer.group:inventory-consumer}",
-            properties = {
-                "spring.json.value.default.type=com.example.consumer.OrderEvent"
-            }
+            concurrency = "${app.consumer.concurrency:3}",
+            batch = "true"
     )
-    public void listen(@Payload OrderEvent event, ConsumerRecord<String, OrderEvent> record) {
-        log.info("📥 Consumed key={} partition={} offset={} value={}", record.key(), record.partition(), record.offset(), event);
+    public void listen(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        batchTimer.record(() -> {
+            for (int i = 0; i < records.size(); i++) {
+                try {
+                    handle(records.get(i));
+                } catch (RuntimeException e) {
+                    throw new BatchListenerFailedException("Order at offset " + records.get(i).offset() + " failed", e, i);
+                }
+            }
+        });
+        batchSize.record(records.size());
+        recordLag(consumer);
+        log.info("📥 Consumed batch of {} orders", records.size());
+    }
+
+    private void handle(ConsumerRecord<String, byte[]> record) {
+        OrderEvent event = deserializer.deserialize(record.topic(), record.headers(), record.value());
+        if (event == null || event.orderId() == null) {
+            throw new IllegalArgumentException("Order without id at " + record.topic() + "-" + record.partition());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Consumed key={} partition={} offset={} value={}", record.key(), record.partition(), record.offset(), event);
+        }
+    }
+
+    private void recordLag(Consumer<?, ?> consumer) {
+        for (TopicPartition tp : consumer.assignment()) {
+            consumer.currentLag(tp).ifPresent(l -> lag.computeIfAbsent(tp, this::lagGauge).set(l));
+        }
+    }
+
+    private AtomicLong lagGauge(TopicPartition tp) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder("orders_consumer_lag", value, AtomicLong::get)
+                .description("Records between the consumer position and the end of the partition")
+                .tag("partition", String.valueOf(tp.partition()))
+                .register(registry);
+        return value;
     }
 }
@@ -0,0 +1,85 @@
+package com.example.consumer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes per message and serialize+deserialize time of the producer's v2 order, JSON against Avro, each read
+ * through the consumer's decoding path. Writes a short report to stdout; only the size is asserted, since
+ * timings depend on the machine. Run with {@code mvn test -Dtest=OrderEventSerdeBenchmarkTest}.
+ */
+class OrderEventSerdeBenchmarkTest {
+
+    private static final String SCHEMAS = "../schemas/order-event";
+    private static final String TOPIC = "orders-topic";
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 500_000;
+
+    /** Shape of the producer's record (v2, with price), which this service does not have. */
+    record ProducerOrder(String orderId, String item, double price) { }
+
+    private final ProducerOrder order = new ProducerOrder("o-101", "laptop", 1299.5);
+
+    @Test
+    void avroIsSmallerThanJsonAndReadsV2ThroughTheReaderSchema() {
+        Serializer<Object> jsonOut = new JsonSerializer<>().noTypeInfo();
+        Deserializer<OrderEvent> jsonIn = new JsonDeserializer<>(OrderEvent.class, false);
+        Schema v2 = new FileSchemaRegistry(SCHEMAS).schema(2);
+        GenericDatumWriter<GenericRecord> avroWriter = new GenericDatumWriter<>(v2, GenericData.get());
+        Deserializer<OrderEvent> avroIn = new AvroOrderDeserializer(SCHEMAS, 1);
+
+        Result json = measure("JSON", o -> jsonOut.serialize(TOPIC, o), jsonIn);
+        Result avro = measure("Avro", o -> writeV2(avroWriter, v2, o), avroIn);
+
+        System.out.printf("%-5s %4s %10s%n", "", "B/msg", "ns/op");
+        for (Result r : new Result[] {json, avro}) System.out.printf("%-5s %4d %10.0f%n", r.name, r.bytes, r.nanosPerOp);
+        assertThat(avro.bytes).isLessThan(json.bytes);
+        assertThat(avroIn.deserialize(TOPIC, writeV2(avroWriter, v2, order))).isEqualTo(new OrderEvent("o-101", "laptop"));
+    }
+
+    private record Result(String name, int bytes, double nanosPerOp) { }
+
+    private Result measure(String name, Function<ProducerOrder, byte[]> write, Deserializer<OrderEvent> read) {
+        int bytes = write.apply(order).length;
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) sink += read.deserialize(TOPIC, write.apply(order)).item().length();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink += read.deserialize(TOPIC, write.apply(order)).item().length();
+        double nanosPerOp = (System.nanoTime() - start) / (double) ITERATIONS;
+        assertThat(sink).isPositive();
+        return new Result(name, bytes, nanosPerOp);
+    }
+
+    /** Same framing and encoding as the producer's AvroOrderSerializer. */
+    private static byte[] writeV2(GenericDatumWriter<GenericRecord> writer, Schema v2, ProducerOrder o) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(AvroOrderDeserializer.MAGIC);
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(2).array());
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(new GenericRecordBuilder(v2)
+                    .set("orderId", o.orderId()).set("item", o.item()).set("price", o.price()).build(), encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.producer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Writes {@link OrderEvent} as Avro binary framed as {@code [0x0][int schema version][payload]}.
+ * Configured through producer properties {@code schema.registry.dir} and {@code schema.version}.
+ */
+public class AvroOrderSerializer implements Serializer<OrderEvent> {
+
+    static final byte MAGIC = 0x0;
+
+    private int version;
+    private Schema schema;
+    private GenericDatumWriter<GenericRecord> writer;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        version = Integer.parseInt(String.valueOf(configs.get("schema.version")));
+        schema = new FileSchemaRegistry(String.valueOf(configs.get("schema.registry.dir"))).schema(version);
+        writer = new GenericDatumWriter<>(schema, GenericData.get());
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderEvent event) {
+        if (event == null) return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(MAGIC);
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(version).array());
+        try {
+            GenericRecord record = new GenericRecordBuilder(schema)
+                    .set("orderId", event.orderId())
+                    .set("item", event.item())
+                    .set("price", event.price())
+                    .build();
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(record, encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Cannot write " + event + " with schema version " + version, e);
+        }
+        return out.toByteArray();
+    }
+}
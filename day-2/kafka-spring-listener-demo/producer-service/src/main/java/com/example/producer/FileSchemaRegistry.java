@@ -0,0 +1,50 @@
+package com.example.producer;
+
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stand-in for a schema registry: every {@code v<N>.avsc} file in one directory is version N of the
+ * subject. Records carry their writer's version, so readers can resolve any version they were not built with.
+ * producer-service and consumer-service are separate builds with no shared module, so each carries an
+ * identical copy of this class; change both together.
+ */
+public class FileSchemaRegistry {
+
+    private static final Pattern FILE = Pattern.compile("v(\\d+)\\.avsc");
+
+    private final Path dir;
+    private final Map<Integer, Schema> versions = new TreeMap<>();
+
+    public FileSchemaRegistry(String dir) {
+        this.dir = Path.of(dir);
+        try (Stream<Path> files = Files.list(this.dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher m = FILE.matcher(file.getFileName().toString());
+                if (m.matches()) versions.put(Integer.parseInt(m.group(1)), new Schema.Parser().parse(file.toFile()));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read schemas from " + this.dir.toAbsolutePath(), e);
+        }
+        if (versions.isEmpty()) throw new IllegalStateException("No v<N>.avsc schemas in " + this.dir.toAbsolutePath());
+    }
+
+    public Schema schema(int version) {
+        Schema schema = versions.get(version);
+        if (schema == null) throw new SerializationException("Unknown schema version " + version + " in " + dir.toAbsolutePath());
+        return schema;
+    }
+
+    public Map<Integer, Schema> versions() {
+        return versions;
+    }
+}
@@ -1,12 +1,15 @@
-
 package com.example.producer;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+import java.util.Map;
+
 @Configuration
 public class KafkaProducerConfig {
 
@@ -19,6 +22,18 @@ public class KafkaProducerConfig {
     @Value("${app.topic.replicas:1}")
     private short replicas; // default 1 if not provided
 
+    @Value("${app.producer.idempotence:true}")
+    private boolean idempotence; // no duplicates on retry; implies acks=all
+
+    @Value("${app.producer.linger-ms:10}")
+    private int lingerMs; // wait this long to fill a batch
+
+    @Value("${app.producer.batch-size:65536}")
+    private int batchSize; // bytes per partition batch
+
+    @Value("${app.producer.compression:lz4}")
+    private String compression;
+
     @Bean
     public NewTopic ordersTopic() {
         return TopicBuilder.name(topicName)
@@ -27,5 +42,13 @@ public class KafkaProducerConfig {
                 .build();
     }
 
-
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer tunedProducer() {
+        return factory -> factory.updateConfigs(Map.of(
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence,
+                ProducerConfig.ACKS_CONFIG, idempotence ? "all" : "1",
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compression));
+    }
 }
@@ -1,28 +1,161 @@
-
 package com.example.producer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    public record BatchResult(long sent, long failed, long millis) { }
+
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final String topic;
+    private final ObjectReader reader;
+    private final Validator validator;
+    private final Timer ackTimer;
+    private final Counter failures;
 
     public OrderController(KafkaTemplate<String, Object> kafkaTemplate,
-                           @Value("${app.topic.name:orders}") String topic) {
+                           @Value("${app.topic.name:orders}") String topic,
+                           ObjectMapper mapper, Validator validator, MeterRegistry registry) {
         this.kafkaTemplate = kafkaTemplate;
         this.topic = topic;
+        this.reader = mapper.readerFor(OrderEvent.class);
+        this.validator = validator;
+        this.ackTimer = Timer.builder("orders_send_ack")
+                .description("Time from send to broker acknowledgement")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.failures = Counter.builder("orders_send_failed_total")
+                .description("Order events the broker did not acknowledge")
+                .register(registry);
     }
 
+    /** With {@code sync=true} the response waits for the broker ack and reports partition and offset. */
     @PostMapping
-    public ResponseEntity<String> create(@Valid @RequestBody OrderEvent event) {
-        kafkaTemplate.send(topic, event.orderId(), event);
-        return ResponseEntity.ok("sent: " + event);
+    public CompletableFuture<ResponseEntity<String>> create(@Valid @RequestBody OrderEvent event,
+                                                            @RequestParam(defaultValue = "false") boolean sync) {
+        CompletableFuture<SendResult<String, Object>> ack = send(event);
+        if (!sync) return CompletableFuture.completedFuture(ResponseEntity.ok("sent: " + event));
+        return ack.handle((result, e) -> e == null
+                ? ResponseEntity.ok("acked: " + event + " at " + result.getRecordMetadata())
+                : ResponseEntity.internalServerError().body("failed: " + event + ": " + e.getMessage()));
+    }
+
+    /**
+     * Publishes an NDJSON stream of orders as it is read; the producer batches them per partition.
+     * Each order gets the same bean validation as {@link #create}; lines that are not valid JSON and
+     * invalid orders are counted as failed and not published, and the rest of the stream still goes out.
+     * Without {@code sync} the result counts records handed to the producer, with it the ones the broker
+     * acked. Acks are tallied as they arrive, so memory does not grow with the size of the stream.
+     */
+    @PostMapping(path = "/batch", consumes = {"application/x-ndjson", "application/json"})
+    public CompletableFuture<BatchResult> batch(InputStream body,
+                                                @RequestParam(defaultValue = "false") boolean sync) throws IOException {
+        long started = System.nanoTime();
+        Acks acks = new Acks();
+        long sent = 0;
+        long invalid = 0;
+        BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String text;
+        long line = 0;
+        while ((text = in.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            OrderEvent event;
+            try {
+                event = reader.readValue(text);
+            } catch (JsonProcessingException e) {
+                invalid++;
+                log.warn("Skipping malformed line {}: {}", line, e.getOriginalMessage());
+                continue;
+            }
+            if (event == null) {
+                invalid++;
+                continue;
+            }
+            Set<ConstraintViolation<OrderEvent>> violations = validator.validate(event);
+            if (!violations.isEmpty()) {
+                invalid++;
+                log.warn("Skipping invalid order on line {} {}: {}", line, event, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage()).sorted().collect(Collectors.joining(", ")));
+                continue;
+            }
+            CompletableFuture<SendResult<String, Object>> ack = send(event);
+            if (sync) acks.track(ack);
+            sent++;
+        }
+        if (!sync) return CompletableFuture.completedFuture(new BatchResult(sent, invalid, millisSince(started)));
+        long rejected = invalid;
+        return acks.close().thenApply(done ->
+                new BatchResult(acks.acked.sum(), acks.failed.sum() + rejected, millisSince(started)));
+    }
+
+    /** Counts outstanding sends; {@link #close} completes once the input has ended and every send has settled. */
+    private static final class Acks {
+        final LongAdder acked = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        private final AtomicLong pending = new AtomicLong(1); // the open input counts as one
+        private final CompletableFuture<Void> settled = new CompletableFuture<>();
+
+        void track(CompletableFuture<?> ack) {
+            pending.incrementAndGet();
+            ack.whenComplete((r, e) -> {
+                (e == null ? acked : failed).increment();
+                release();
+            });
+        }
+
+        CompletableFuture<Void> close() {
+            release();
+            return settled;
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) settled.complete(null);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OrderEvent event) {
+        Timer.Sample sample = Timer.start();
+        return kafkaTemplate.send(topic, event.orderId(), event).whenComplete((result, e) -> {
+            sample.stop(ackTimer);
+            if (e != null) {
+                failures.increment();
+                log.warn("Order {} was not acknowledged: {}", event.orderId(), e.getMessage());
+            }
+        });
+    }
+
+    private static long millisSince(long nanos) {
+        return (System.nanoTime() - nanos) / 1_000_000;
     }
 }
@@ -1,4 +1,6 @@
-
 package com.example.producer;
 
-public record OrderEvent(String orderId, String item,double price) { }
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public record OrderEvent(@NotBlank String orderId, @NotBlank String item, @PositiveOrZero double price) { }
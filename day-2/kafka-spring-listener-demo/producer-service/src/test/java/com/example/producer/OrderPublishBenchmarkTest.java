@@ -0,0 +1,77 @@
+package com.example.producer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes NDJSON batches through {@code POST /api/orders/batch?sync=true} against an embedded broker and
+ * reports msgs/s and broker ack latency from {@code orders_send_ack}. Prints a report to stdout; only the
+ * counts are asserted. Run with {@code mvn test -Dtest=OrderPublishBenchmarkTest}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+            "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+            "app.schema.registry-dir=../schemas/order-event"
+        })
+@EmbeddedKafka(partitions = 3, topics = "orders-topic")
+class OrderPublishBenchmarkTest {
+
+    private static final int WARMUP = 10_000;
+    private static final int ORDERS = 100_000;
+
+    @Autowired
+    private OrderController controller;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void publishesValidOrdersAndReportsThroughputAndAckLatency() throws Exception {
+        publish(WARMUP);
+        HistogramSnapshot before = registry.get("orders_send_ack").timer().takeSnapshot();
+
+        OrderController.BatchResult result = publish(ORDERS);
+        HistogramSnapshot after = registry.get("orders_send_ack").timer().takeSnapshot();
+
+        assertThat(result.sent()).isEqualTo(ORDERS);
+        assertThat(result.failed()).isEqualTo(3); // one blank item, one negative price, one malformed line
+        System.out.printf("%d orders in %d ms: %.0f msgs/s, ack p50 %.2f ms, p99 %.2f ms%n",
+                result.sent(), result.millis(), result.sent() * 1000.0 / Math.max(result.millis(), 1),
+                percentileMillis(before, after, 0.50), percentileMillis(before, after, 0.99));
+    }
+
+    private OrderController.BatchResult publish(int orders) throws Exception {
+        StringBuilder ndjson = new StringBuilder(orders * 60);
+        for (int i = 0; i < orders; i++) {
+            ndjson.append("{\"orderId\":\"o-").append(i).append("\",\"item\":\"pen\",\"price\":1.5}\n");
+        }
+        ndjson.append("{\"orderId\":\"bad-1\",\"item\":\" \",\"price\":1.5}\n");
+        ndjson.append("{\"orderId\":\"bad-2\",\"item\":\"pen\",\"price\":-1}\n");
+        ndjson.append("{\"orderId\":\"bad-3\",\n");
+        byte[] body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        return controller.batch(new ByteArrayInputStream(body), true).get(2, TimeUnit.MINUTES);
+    }
+
+    /** Upper bound of the histogram bucket holding the given percentile of the acks recorded between two snapshots. */
+    private static double percentileMillis(HistogramSnapshot before, HistogramSnapshot after, double percentile) {
+        CountAtBucket[] from = before.histogramCounts();
+        CountAtBucket[] to = after.histogramCounts();
+        double total = after.count() - before.count();
+        for (int i = 0; i < to.length; i++) {
+            if (to[i].count() - from[i].count() >= percentile * total) return to[i].bucket(TimeUnit.MILLISECONDS);
+        }
+        return after.max(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.tracingdemo;
+/** Body of an order to create; missing fields get the same defaults as {@code POST /api/orders}. */
+public record NewOrder(String customer, String sku, Integer qty, Integer priceCents) {
+  public NewOrder {
+    if (customer == null) customer = "Anonymous";
+    if (sku == null) sku = "sku-1";
+    if (qty == null) qty = 1;
+    if (priceCents == null) priceCents = 999;
+  }
+}
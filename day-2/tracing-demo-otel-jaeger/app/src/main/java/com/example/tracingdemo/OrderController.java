@@ -1,14 +1,36 @@
 package com.example.tracingdemo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
   private final OrderService svc;
-  public OrderController(OrderService svc) { this.svc = svc; }
+  private final ObjectMapper mapper;
+  private final int maxBatchSize;
+  public OrderController(OrderService svc, ObjectMapper mapper,
+                         @Value("${app.orders.batch.max-size:10000}") int maxBatchSize) {
+    this.svc = svc;
+    this.mapper = mapper;
+    this.maxBatchSize = maxBatchSize;
+  }
   @GetMapping("/{id}")
   @Observed(name="http.order.getById", lowCardinalityKeyValues={"http","GET /api/orders/{id}"})
   public ResponseEntity<?> get(@PathVariable long id) {
@@ -18,6 +40,24 @@ public class OrderController {
   @GetMapping
   @Observed(name="http.order.list", lowCardinalityKeyValues={"http","GET /api/orders"})
   public List<Order> list() { return svc.list(); }
+  /** Same JSON array as {@code GET /api/orders}, written row by row as the cursor advances: constant memory. */
+  @GetMapping(path = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Observed(name="http.order.stream", lowCardinalityKeyValues={"http","GET /api/orders/stream"})
+  public StreamingResponseBody stream() {
+    return out -> {
+      try (JsonGenerator json = mapper.createGenerator(out)) {
+        json.writeStartArray();
+        svc.streamAll(order -> {
+          try {
+            json.writeObject(order);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e); // client went away: abort the query
+          }
+        });
+        json.writeEndArray();
+      }
+    };
+  }
   @PostMapping
   @Observed(name="http.order.create", lowCardinalityKeyValues={"http","POST /api/orders"})
   public Map<String,Object> create(@RequestBody Map<String,Object> body) {
@@ -28,4 +68,38 @@ public class OrderController {
     long id = svc.create(customer, sku, qty, priceCents);
     return Map.of("id", id, "status", "created");
   }
+  /**
+   * Parses the array element by element: a body with more than {@code max-size} orders is refused as soon
+   * as the next element starts, without buffering the rest, and a {@code null} element is a 400.
+   */
+  @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @Observed(name="http.order.createBatch", lowCardinalityKeyValues={"http","POST /api/orders/batch"})
+  public Map<String,Object> createBatch(InputStream body) throws IOException {
+    List<NewOrder> orders = new ArrayList<>();
+    try (JsonParser json = mapper.createParser(body)) {
+      if (json.nextToken() != JsonToken.START_ARRAY) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of orders");
+      }
+      for (JsonToken t = json.nextToken(); t != JsonToken.END_ARRAY; t = json.nextToken()) {
+        if (orders.size() == maxBatchSize) {
+          throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+              "More than " + maxBatchSize + " orders exceed the batch limit");
+        }
+        if (t == null) {
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unterminated array of orders");
+        }
+        if (t != JsonToken.START_OBJECT) {
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "orders[" + orders.size() + "] is "
+              + (t == JsonToken.VALUE_NULL ? "null" : "not an object"));
+        }
+        orders.add(mapper.readValue(json, NewOrder.class));
+      }
+    } catch (JsonProcessingException e) {
+      JsonLocation at = e.getLocation();
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, at == null ? "Malformed JSON"
+          : "Malformed JSON at line " + at.getLineNr() + ", column " + at.getColumnNr(), e);
+    }
+    List<Long> ids = orders.isEmpty() ? List.of() : svc.createAll(orders);
+    return Map.of("ids", ids, "status", "created");
+  }
 }
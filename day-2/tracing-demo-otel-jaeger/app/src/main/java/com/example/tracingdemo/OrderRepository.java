@@ -1,17 +1,29 @@
 package com.example.tracingdemo;
 import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @Repository
 public class OrderRepository {
   private final JdbcTemplate jdbc;
+  private final int fetchSize;
   private static final RowMapper<Order> ROW_MAPPER = (rs, i) -> new Order(
       rs.getLong("id"), rs.getString("customer"), rs.getString("sku"),
       rs.getInt("qty"), rs.getInt("price_cents"));
-  public OrderRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+  public OrderRepository(JdbcTemplate jdbc, @Value("${app.orders.stream.fetch-size:1000}") int fetchSize) {
+    this.jdbc = jdbc;
+    this.fetchSize = fetchSize;
+  }
   @Observed(name="db.order.findById", lowCardinalityKeyValues={"sql","SELECT * FROM orders WHERE id=?"})
   public Optional<Order> findById(long id) {
     List<Order> list = jdbc.query("SELECT id, customer, sku, qty, price_cents FROM orders WHERE id = ?", ROW_MAPPER, id);
@@ -21,9 +33,51 @@ public class OrderRepository {
   public List<Order> findAll() {
     return jdbc.query("SELECT id, customer, sku, qty, price_cents FROM orders ORDER BY id", ROW_MAPPER);
   }
+  /**
+   * Hands every order to {@code action} in id order while reading the result set {@code fetch-size} rows at a
+   * time. PostgreSQL only uses a cursor inside a transaction, hence {@code @Transactional}; outside one the
+   * driver would buffer the whole table.
+   */
+  @Observed(name="db.order.streamAll", lowCardinalityKeyValues={"sql","SELECT * FROM orders"})
+  @Transactional(readOnly = true)
+  public long streamAll(Consumer<Order> action) {
+    try (Stream<Order> rows = jdbc.queryForStream(con -> {
+      PreparedStatement ps = con.prepareStatement("SELECT id, customer, sku, qty, price_cents FROM orders ORDER BY id");
+      ps.setFetchSize(fetchSize);
+      return ps;
+    }, ROW_MAPPER)) {
+      long count = 0;
+      for (Iterator<Order> it = rows.iterator(); it.hasNext(); count++) action.accept(it.next());
+      return count;
+    }
+  }
   @Observed(name="db.order.create", lowCardinalityKeyValues={"sql","INSERT INTO orders"})
   public long create(String customer, String sku, int qty, int priceCents) {
     return jdbc.queryForObject("INSERT INTO orders(customer, sku, qty, price_cents) VALUES (?,?,?,?) RETURNING id",
         Long.class, customer, sku, qty, priceCents);
   }
+  /**
+   * Inserts all orders in one transaction and returns their ids in input order. The ids are drawn from the
+   * SERIAL sequence up front, so the rows go out as a plain JDBC batch that the driver rewrites into
+   * multi-row INSERTs ({@code reWriteBatchedInserts}), instead of one {@code RETURNING} round trip per row.
+   */
+  @Observed(name="db.order.createAll", lowCardinalityKeyValues={"sql","INSERT INTO orders (batch)"})
+  @Transactional
+  public List<Long> createAll(List<NewOrder> orders) {
+    List<Long> ids = jdbc.queryForList(
+        "SELECT nextval(pg_get_serial_sequence('orders', 'id')) FROM generate_series(1, ?)", Long.class, orders.size());
+    jdbc.batchUpdate("INSERT INTO orders(id, customer, sku, qty, price_cents) VALUES (?,?,?,?,?)",
+        new BatchPreparedStatementSetter() {
+          @Override public void setValues(PreparedStatement ps, int i) throws SQLException {
+            NewOrder o = orders.get(i);
+            ps.setLong(1, ids.get(i));
+            ps.setString(2, o.customer());
+            ps.setString(3, o.sku());
+            ps.setInt(4, o.qty());
+            ps.setInt(5, o.priceCents());
+          }
+          @Override public int getBatchSize() { return orders.size(); }
+        });
+    return ids;
+  }
 }
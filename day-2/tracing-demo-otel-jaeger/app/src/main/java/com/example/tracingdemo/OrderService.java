@@ -3,6 +3,7 @@ import io.micrometer.observation.annotation.Observed;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 @Service
 public class OrderService {
   private final OrderRepository repo;
@@ -15,4 +16,8 @@ public class OrderService {
   public long create(String customer, String sku, int qty, int priceCents) {
     return repo.create(customer, sku, qty, priceCents);
   }
+  @Observed(name="svc.order.stream", lowCardinalityKeyValues={"op","stream"})
+  public long streamAll(Consumer<Order> action) { return repo.streamAll(action); }
+  @Observed(name="svc.order.createAll", lowCardinalityKeyValues={"op","createAll"})
+  public List<Long> createAll(List<NewOrder> orders) { return repo.createAll(orders); }
 }
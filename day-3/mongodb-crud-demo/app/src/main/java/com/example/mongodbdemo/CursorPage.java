@@ -0,0 +1,6 @@
+package com.example.mongodbdemo;
+
+import java.util.List;
+
+/** One keyset page; {@code next} is null on the last page, {@code total} only when it was requested. */
+public record CursorPage<T>(List<T> items, String next, Long total) { }
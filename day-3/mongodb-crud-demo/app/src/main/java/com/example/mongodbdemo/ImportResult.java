@@ -0,0 +1,12 @@
+package com.example.mongodbdemo;
+
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON import. {@code errors} lists failed lines (1-based), capped at
+ * {@link ProductImporter#MAX_REPORTED_ERRORS}; {@code failed} always holds the full count.
+ */
+public record ImportResult(long received, long inserted, long updated, long failed, List<ItemError> errors) {
+
+  public record ItemError(long line, String sku, String message) { }
+}
@@ -2,27 +2,39 @@ package com.example.mongodbdemo;
 
 import jakarta.validation.constraints.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 
 @Document("products")
+@CompoundIndex(name = "nameLower_price", def = "{'nameLower': 1, 'price': 1}")
+@CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}")
 public class Product {
   @Id
   private String id;
 
   @NotBlank
+  @TextIndexed
   private String name;
 
+  // lowercase copy of name for anchored, index-backed prefix search; kept in sync by setName
+  private String nameLower;
+
   @NotBlank
   @Indexed(unique = true)
   private String sku;
 
   @NotNull
   @DecimalMin(value = "0.00", inclusive = true)
+  @Field(targetType = FieldType.DECIMAL128)
   private BigDecimal price;
 
   private List<String> tags;
@@ -34,7 +46,10 @@ public class Product {
   public String getId() { return id; }
   public void setId(String id) { this.id = id; }
   public String getName() { return name; }
-  public void setName(String name) { this.name = name; }
+  public void setName(String name) {
+    this.name = name;
+    this.nameLower = normalize(name);
+  }
   public String getSku() { return sku; }
   public void setSku(String sku) { this.sku = sku; }
   public BigDecimal getPrice() { return price; }
@@ -45,4 +60,8 @@ public class Product {
   public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
   public Instant getUpdatedAt() { return updatedAt; }
   public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+  static String normalize(String name) {
+    return name == null ? null : name.toLowerCase(Locale.ROOT);
+  }
 }
@@ -1,22 +1,31 @@
 package com.example.mongodbdemo;
 
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/products")
 public class ProductController {
 
   private final ProductService svc;
+  private final ProductImporter importer;
 
-  public ProductController(ProductService svc) {
+  public ProductController(ProductService svc, ProductImporter importer) {
     this.svc = svc;
+    this.importer = importer;
   }
 
   @PostMapping
@@ -24,11 +33,16 @@ public class ProductController {
     return ResponseEntity.ok(svc.create(p));
   }
 
-  @PostMapping("/bulk")
+  @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<List<Product>> bulk(@RequestBody List<@Valid Product> products) {
     return ResponseEntity.ok(svc.bulkCreate(products));
   }
 
+  @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ImportResult bulkImport(InputStream body) throws IOException {
+    return importer.importNdjson(body);
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<Product> get(@PathVariable String id) {
     return svc.getById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
@@ -40,14 +54,46 @@ public class ProductController {
   }
 
   @GetMapping
-  public Page<Product> search(
+  public Slice<Product> search(
       @RequestParam(required = false) String q,
+      @RequestParam(defaultValue = "contains") String mode,
       @RequestParam(required = false) BigDecimal min,
       @RequestParam(required = false) BigDecimal max,
       @RequestParam(defaultValue = "0") int page,
-      @RequestParam(defaultValue = "10") int size
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "false") boolean count
+  ) {
+    return svc.search(q, searchMode(mode), min, max, page, size, count);
+  }
+
+  @GetMapping("/cursor")
+  public CursorPage<Product> searchAfter(
+      @RequestParam(required = false) String q,
+      @RequestParam(defaultValue = "contains") String mode,
+      @RequestParam(required = false) BigDecimal min,
+      @RequestParam(required = false) BigDecimal max,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "false") boolean count
   ) {
-    return svc.search(q, min, max, page, size);
+    return svc.searchAfter(q, searchMode(mode), min, max, cursor(cursor), size, count);
+  }
+
+  static ProductCursor cursor(String token) {
+    if (token == null) return null;
+    try {
+      return ProductCursor.decode(token);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+
+  static SearchMode searchMode(String mode) {
+    try {
+      return SearchMode.from(mode);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown search mode: " + mode);
+    }
   }
 
   @PutMapping("/{id}")
@@ -57,7 +103,11 @@ public class ProductController {
 
   @PatchMapping("/{id}")
   public ResponseEntity<Product> patch(@PathVariable String id, @RequestBody Map<String, Object> fields) {
-    return svc.patch(id, fields).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    try {
+      return svc.patch(id, fields).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
   }
 
   @DeleteMapping("/{id}")
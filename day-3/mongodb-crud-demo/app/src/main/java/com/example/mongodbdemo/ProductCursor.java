@@ -0,0 +1,26 @@
+package com.example.mongodbdemo;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/** Position after the last returned product in {@code (price, _id)} order, encoded as an opaque token. */
+public record ProductCursor(BigDecimal price, String id) {
+
+  public static ProductCursor after(Product p) {
+    return new ProductCursor(p.getPrice(), p.getId());
+  }
+
+  public String encode() {
+    String raw = price.toPlainString() + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** @throws IllegalArgumentException if the token was not produced by {@link #encode()} */
+  public static ProductCursor decode(String token) {
+    String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int sep = raw.indexOf('|');
+    if (sep < 0) throw new IllegalArgumentException("Malformed cursor");
+    return new ProductCursor(new BigDecimal(raw.substring(0, sep)), raw.substring(sep + 1));
+  }
+}
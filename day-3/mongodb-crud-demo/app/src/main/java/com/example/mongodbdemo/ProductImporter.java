@@ -0,0 +1,130 @@
+package com.example.mongodbdemo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an NDJSON product feed into Mongo as unordered bulk upserts keyed by SKU.
+ * Lines are read and sent in chunks of {@code app.import.chunk-size}, so a feed costs
+ * one round-trip per chunk and memory stays bounded by the chunk. Unordered mode lets
+ * the server apply every valid row even when others in the same chunk fail.
+ */
+@Service
+public class ProductImporter {
+
+  static final int MAX_REPORTED_ERRORS = 1000;
+
+  record Row(long line, Product product) { }
+
+  private final MongoTemplate template;
+  private final ObjectReader reader;
+  private final Validator validator;
+  private final int chunkSize;
+
+  public ProductImporter(MongoTemplate template, ObjectMapper mapper, Validator validator,
+                         @Value("${app.import.chunk-size:1000}") int chunkSize) {
+    this.template = template;
+    this.reader = mapper.readerFor(Product.class);
+    this.validator = validator;
+    this.chunkSize = chunkSize;
+  }
+
+  public ImportResult importNdjson(InputStream body) throws IOException {
+    Tally tally = new Tally();
+    List<Row> chunk = new ArrayList<>(chunkSize);
+    BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    String text;
+    long line = 0;
+    while ((text = in.readLine()) != null) {
+      Row row = parse(reader, validator, ++line, text, tally);
+      if (row == null) continue;
+      chunk.add(row);
+      if (chunk.size() == chunkSize) {
+        flush(chunk, tally);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) flush(chunk, tally);
+    return tally.result();
+  }
+
+  /**
+   * Decodes and validates one raw NDJSON line. Returns {@code null} for a blank line or, after
+   * recording the failure in {@code tally}, for a malformed or invalid one.
+   */
+  static Row parse(ObjectReader reader, Validator validator, long line, String text, Tally tally) {
+    if (text.isBlank()) return null;
+    tally.received++;
+    Product p;
+    try {
+      p = reader.readValue(text);
+    } catch (JsonProcessingException e) {
+      tally.fail(line, null, "Malformed JSON: " + e.getOriginalMessage());
+      return null;
+    }
+    Set<ConstraintViolation<Product>> violations = validator.validate(p);
+    if (!violations.isEmpty()) {
+      tally.fail(line, p.getSku(), violations.stream()
+          .map(v -> v.getPropertyPath() + " " + v.getMessage()).sorted().collect(Collectors.joining(", ")));
+      return null;
+    }
+    return new Row(line, p);
+  }
+
+  private void flush(List<Row> chunk, Tally tally) {
+    Instant now = Instant.now();
+    BulkOperations ops = template.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+    for (Row row : chunk) {
+      ops.upsert(ProductQueries.bySku(row.product().getSku()), ProductQueries.upsert(row.product(), now));
+    }
+    try {
+      tally.count(ops.execute());
+    } catch (BulkOperationException e) {
+      tally.count(e.getResult());
+      for (BulkWriteError err : e.getErrors()) {
+        Row row = chunk.get(err.getIndex());
+        tally.fail(row.line(), row.product().getSku(), err.getMessage());
+      }
+    }
+  }
+
+  static final class Tally {
+    long received, inserted, updated, failed;
+    final List<ImportResult.ItemError> errors = new ArrayList<>();
+
+    void count(BulkWriteResult r) {
+      inserted += r.getUpserts().size();
+      updated += r.getMatchedCount();
+    }
+
+    void fail(long line, String sku, String message) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportResult.ItemError(line, sku, message));
+    }
+
+    ImportResult result() {
+      return new ImportResult(received, inserted, updated, failed, errors);
+    }
+  }
+}
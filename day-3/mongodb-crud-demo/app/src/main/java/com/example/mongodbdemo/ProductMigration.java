@@ -0,0 +1,94 @@
+package com.example.mongodbdemo;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One-time upgrade of products written before {@code price} became {@code Decimal128} and
+ * {@code nameLower} was added. String prices would be skipped by numeric range filters and
+ * documents without {@code nameLower} by prefix search, so on startup both are rewritten in
+ * unordered bulk updates of {@code app.import.chunk-size}. Completion is recorded in the
+ * {@code migrations} collection and later startups skip the scan.
+ */
+@Component
+public class ProductMigration implements ApplicationRunner {
+
+  static final String ID = "products-decimal-price-name-lower";
+  static final String MIGRATIONS = "migrations";
+
+  private static final Logger log = LoggerFactory.getLogger(ProductMigration.class);
+
+  private final MongoTemplate template;
+  private final int chunkSize;
+
+  public ProductMigration(MongoTemplate template, @Value("${app.import.chunk-size:1000}") int chunkSize) {
+    this.template = template;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (template.exists(new Query(Criteria.where("_id").is(ID)), MIGRATIONS)) return;
+    long migrated = migrate();
+    template.save(new Document("_id", ID).append("migrated", migrated).append("at", Instant.now()), MIGRATIONS);
+    log.info("Migration {} rewrote {} products", ID, migrated);
+  }
+
+  /** Rewrites only documents that still need it, so an interrupted run can simply be repeated. */
+  long migrate() {
+    String collection = template.getCollectionName(Product.class);
+    Query stale = new Query(new Criteria().orOperator(
+        Criteria.where("price").type(JsonSchemaObject.Type.stringType()),
+        Criteria.where("nameLower").exists(false)));
+    stale.fields().include("name", "price");
+    long migrated = 0;
+    List<Document> chunk = new ArrayList<>(chunkSize);
+    try (Stream<Document> docs = template.stream(stale, Document.class, collection)) {
+      for (Iterator<Document> it = docs.iterator(); it.hasNext(); ) {
+        chunk.add(it.next());
+        if (chunk.size() == chunkSize) {
+          migrated += flush(chunk, collection);
+          chunk.clear();
+        }
+      }
+    }
+    if (!chunk.isEmpty()) migrated += flush(chunk, collection);
+    return migrated;
+  }
+
+  private long flush(List<Document> chunk, String collection) {
+    BulkOperations ops = template.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+    for (Document doc : chunk) {
+      // same normalization as Product.setName, which a server-side $toLower would not match for non-ASCII names
+      Update update = new Update().set("nameLower", Product.normalize(doc.getString("name")));
+      if (doc.get("price") instanceof String price) {
+        try {
+          update.set("price", new Decimal128(new BigDecimal(price.trim())));
+        } catch (NumberFormatException e) {
+          log.warn("Product {} keeps its unparseable price '{}'", doc.get("_id"), price);
+        }
+      }
+      ops.updateOne(new Query(Criteria.where("_id").is(doc.get("_id"))), update);
+    }
+    return ops.execute().getModifiedCount();
+  }
+}
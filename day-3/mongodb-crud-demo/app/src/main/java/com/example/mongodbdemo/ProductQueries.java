@@ -0,0 +1,137 @@
+package com.example.mongodbdemo;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/** Queries and updates shared by the blocking and reactive product services. */
+final class ProductQueries {
+
+  static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+  private ProductQueries() { }
+
+  static Query byId(String id) {
+    return new Query(Criteria.where("_id").is(id));
+  }
+
+  static Query bySku(String sku) {
+    return new Query(Criteria.where("sku").is(sku));
+  }
+
+  /** Name match (if {@code text} is set) plus price range; a missing bound is open. */
+  static Query filter(String text, SearchMode mode, BigDecimal min, BigDecimal max) {
+    Query q = StringUtils.hasText(text) ? nameQuery(text, mode) : new Query();
+    Criteria price = Criteria.where("price").gte(min == null ? BigDecimal.ZERO : min);
+    if (max != null) price = price.lte(max);
+    return q.addCriteria(price);
+  }
+
+  private static Query nameQuery(String text, SearchMode mode) {
+    return switch (mode) {
+      case CONTAINS -> new Query(Criteria.where("name").regex(Pattern.quote(text), "i"));
+      case PREFIX -> new Query(Criteria.where("nameLower").regex("^" + Pattern.quote(Product.normalize(text))));
+      case TEXT -> TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text));
+    };
+  }
+
+  /** {@code filter} restricted to entries after {@code after} in {@code (price, _id)} order, one extra row to detect a next page. */
+  static Query keysetPage(Query filter, ProductCursor after, int size) {
+    Query q = Query.of(filter);
+    if (after != null) {
+      q.addCriteria(new Criteria().orOperator(
+          Criteria.where("price").gt(after.price()),
+          Criteria.where("price").is(after.price()).and("_id").gt(after.id())));
+    }
+    return q.with(Sort.by(Sort.Order.asc("price"), Sort.Order.asc("_id"))).limit(size + 1);
+  }
+
+  /** Trims the probe row fetched by {@link #keysetPage} and derives the next cursor from it. */
+  static CursorPage<Product> cursorPage(List<Product> items, int size, Long total) {
+    String next = null;
+    if (items.size() > size) {
+      items = items.subList(0, size);
+      next = ProductCursor.after(items.get(size - 1)).encode();
+    }
+    return new CursorPage<>(items, next, total);
+  }
+
+  /** Overwrites every client-owned field, leaving {@code createdAt} alone. */
+  static Update replace(Product p, Instant now) {
+    return new Update()
+        .set("name", p.getName())
+        .set("nameLower", Product.normalize(p.getName()))
+        .set("sku", p.getSku())
+        .set("price", p.getPrice())
+        .set("tags", p.getTags())
+        .set("updatedAt", now);
+  }
+
+  /** Upsert keyed by SKU; {@code createdAt} is only written when the document is inserted. */
+  static Update upsert(Product p, Instant now) {
+    return new Update()
+        .set("name", p.getName())
+        .set("nameLower", Product.normalize(p.getName()))
+        .set("price", p.getPrice())
+        .set("tags", p.getTags())
+        .set("updatedAt", now)
+        .setOnInsert("createdAt", now);
+  }
+
+  /**
+   * Builds a patch from client-supplied fields.
+   * @throws IllegalArgumentException for unknown fields or values of the wrong type
+   */
+  static Update patch(Map<String, Object> fields, Instant now) {
+    Update u = new Update();
+    fields.forEach((k, v) -> {
+      switch (k) {
+        case "id", "createdAt", "updatedAt" -> { }
+        case "name" -> {
+          String name = requireText(k, v);
+          u.set("name", name).set("nameLower", Product.normalize(name));
+        }
+        case "sku" -> u.set("sku", requireText(k, v));
+        case "price" -> u.set("price", requirePrice(v));
+        case "tags" -> u.set("tags", requireTags(v));
+        default -> throw new IllegalArgumentException("Unknown field: " + k);
+      }
+    });
+    return u.set("updatedAt", now);
+  }
+
+  private static String requireText(String field, Object v) {
+    if (v instanceof String s && StringUtils.hasText(s)) return s;
+    throw new IllegalArgumentException(field + " must be a non-blank string");
+  }
+
+  private static BigDecimal requirePrice(Object v) {
+    BigDecimal price;
+    try {
+      price = v instanceof Number || v instanceof String ? new BigDecimal(v.toString()) : null;
+    } catch (NumberFormatException e) {
+      price = null;
+    }
+    if (price == null || price.signum() < 0) throw new IllegalArgumentException("price must be a number >= 0");
+    return price;
+  }
+
+  private static List<String> requireTags(Object v) {
+    if (v == null) return null;
+    if (v instanceof List<?> list && list.stream().allMatch(t -> t instanceof String)) {
+      return list.stream().map(String.class::cast).toList();
+    }
+    throw new IllegalArgumentException("tags must be a list of strings");
+  }
+}
@@ -2,6 +2,7 @@ package com.example.mongodbdemo;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.math.BigDecimal;
@@ -12,4 +13,6 @@ public interface ProductRepository extends MongoRepository<Product, String> {
   Optional<Product> findBySku(String sku);
   List<Product> findByNameRegex(String regex);
   Page<Product> findByPriceBetween(BigDecimal min, BigDecimal max, Pageable pageable);
+  /** Same page as {@link #findByPriceBetween} without the count query. */
+  Slice<Product> readByPriceBetween(BigDecimal min, BigDecimal max, Pageable pageable);
 }
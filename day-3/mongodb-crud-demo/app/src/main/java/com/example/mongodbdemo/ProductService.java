@@ -1,12 +1,13 @@
 package com.example.mongodbdemo;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -16,6 +17,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static com.example.mongodbdemo.ProductQueries.RETURN_NEW;
+import static com.example.mongodbdemo.ProductQueries.byId;
+
 @Service
 public class ProductService {
 
@@ -43,51 +47,60 @@ public class ProductService {
   public Optional<Product> getById(String id) { return repo.findById(id); }
   public Optional<Product> getBySku(String sku) { return repo.findBySku(sku); }
 
-  public Page<Product> search(String nameContains, BigDecimal min, BigDecimal max, int page, int size) {
+  /**
+   * Offset page of matches. The total is only counted when {@code withTotal} is set (and skipped even
+   * then when the page itself shows it); otherwise one extra document is read to fill {@code hasNext}.
+   */
+  public Slice<Product> search(String nameQuery, SearchMode mode, BigDecimal min, BigDecimal max, int page, int size,
+                               boolean withTotal) {
     Pageable pageable = PageRequest.of(page, size);
     if (min == null) min = BigDecimal.ZERO;
     if (max == null) max = new BigDecimal("999999999");
-    if (StringUtils.hasText(nameContains)) {
-      Query q = new Query()
-          .addCriteria(Criteria.where("name").regex(".*" + nameContains + ".*", "i"))
-          .addCriteria(Criteria.where("price").gte(min).lte(max))
-          .with(pageable);
+    if (!StringUtils.hasText(nameQuery)) {
+      return withTotal ? repo.findByPriceBetween(min, max, pageable) : repo.readByPriceBetween(min, max, pageable);
+    }
+    Query q = ProductQueries.filter(nameQuery, mode, min, max).with(pageable);
+    if (q instanceof TextQuery tq) tq.sortByScore();
+    if (withTotal) {
       List<Product> content = template.find(q, Product.class);
-      long total = template.count(Query.of(q).limit(-1).skip(-1), Product.class);
-      return new org.springframework.data.domain.PageImpl<>(content, pageable, total);
-    } else {
-      return repo.findByPriceBetween(min, max, pageable);
+      return PageableExecutionUtils.getPage(content, pageable,
+          () -> template.count(Query.of(q).limit(-1).skip(-1), Product.class));
     }
+    List<Product> content = template.find(q.limit(size + 1), Product.class);
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+  }
+
+  /**
+   * Keyset page in {@code (price, _id)} order. Each page seeks past the cursor on the
+   * {@code price_id} index instead of skipping, so every page costs the same; the total
+   * is only counted when {@code withTotal} is set.
+   */
+  public CursorPage<Product> searchAfter(String nameQuery, SearchMode mode, BigDecimal min, BigDecimal max,
+                                         ProductCursor after, int size, boolean withTotal) {
+    Query filter = ProductQueries.filter(nameQuery, mode, min, max);
+    Long total = withTotal ? template.count(filter, Product.class) : null;
+    size = Math.max(size, 1);
+    List<Product> items = template.find(ProductQueries.keysetPage(filter, after, size), Product.class);
+    return ProductQueries.cursorPage(items, size, total);
   }
 
+  /** Overwrites every client-owned field in one findAndModify, keeping {@code createdAt}. */
   public Optional<Product> replace(String id, Product p) {
-    return repo.findById(id).map(existing -> {
-      p.setId(id);
-      p.setCreatedAt(existing.getCreatedAt());
-      p.setUpdatedAt(Instant.now());
-      return repo.save(p);
-    });
+    return Optional.ofNullable(
+        template.findAndModify(byId(id), ProductQueries.replace(p, Instant.now()), RETURN_NEW, Product.class));
   }
 
+  /**
+   * Applies {@code fields} atomically and returns the updated document.
+   * @throws IllegalArgumentException for unknown fields or values of the wrong type
+   */
   public Optional<Product> patch(String id, Map<String, Object> fields) {
-    Query q = new Query(Criteria.where("_id").is(id));
-    Update u = new Update();
-    fields.forEach((k,v) -> {
-      if (!"id".equals(k) && !"createdAt".equals(k)) u.set(k, v);
-    });
-    u.set("updatedAt", Instant.now());
-    var res = template.updateFirst(q, u, Product.class);
-    if (res.getModifiedCount() > 0) {
-      return Optional.ofNullable(template.findById(id, Product.class));
-    }
-    return Optional.empty();
+    return Optional.ofNullable(
+        template.findAndModify(byId(id), ProductQueries.patch(fields, Instant.now()), RETURN_NEW, Product.class));
   }
 
   public boolean delete(String id) {
-    if (repo.existsById(id)) {
-      repo.deleteById(id);
-      return true;
-    }
-    return false;
+    return template.remove(byId(id), Product.class).getDeletedCount() > 0;
   }
 }
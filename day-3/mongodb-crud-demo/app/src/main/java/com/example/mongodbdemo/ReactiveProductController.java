@@ -0,0 +1,102 @@
+package com.example.mongodbdemo;
+
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux version of {@link ProductController}, active with the {@code reactive} profile.
+ * {@code GET /api/products} streams matches instead of returning a {@code Page}; request
+ * it as {@code application/x-ndjson} to receive each product as soon as Mongo returns it.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/products")
+public class ReactiveProductController {
+
+  private final ReactiveProductService svc;
+
+  public ReactiveProductController(ReactiveProductService svc) {
+    this.svc = svc;
+  }
+
+  @PostMapping
+  public Mono<Product> create(@Valid @RequestBody Product p) {
+    return svc.create(p);
+  }
+
+  @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public Flux<Product> bulk(@RequestBody List<@Valid Product> products) {
+    return svc.bulkCreate(products);
+  }
+
+  @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public Mono<ImportResult> bulkImport(@RequestBody Flux<DataBuffer> body) {
+    return svc.importNdjson(body);
+  }
+
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<Product>> get(@PathVariable String id) {
+    return svc.getById(id).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @GetMapping("/sku/{sku}")
+  public Mono<ResponseEntity<Product>> getBySku(@PathVariable String sku) {
+    return svc.getBySku(sku).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public Flux<Product> search(
+      @RequestParam(required = false) String q,
+      @RequestParam(defaultValue = "contains") String mode,
+      @RequestParam(required = false) BigDecimal min,
+      @RequestParam(required = false) BigDecimal max,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "10") int size
+  ) {
+    return svc.search(q, ProductController.searchMode(mode), min, max, page, size);
+  }
+
+  @GetMapping("/cursor")
+  public Mono<CursorPage<Product>> searchAfter(
+      @RequestParam(required = false) String q,
+      @RequestParam(defaultValue = "contains") String mode,
+      @RequestParam(required = false) BigDecimal min,
+      @RequestParam(required = false) BigDecimal max,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "false") boolean count
+  ) {
+    return svc.searchAfter(q, ProductController.searchMode(mode), min, max,
+        ProductController.cursor(cursor), size, count);
+  }
+
+  @PutMapping("/{id}")
+  public Mono<ResponseEntity<Product>> replace(@PathVariable String id, @Valid @RequestBody Product p) {
+    return svc.replace(id, p).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  @PatchMapping("/{id}")
+  public Mono<ResponseEntity<Product>> patch(@PathVariable String id, @RequestBody Map<String, Object> fields) {
+    return svc.patch(id, fields).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build())
+        .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+  }
+
+  @DeleteMapping("/{id}")
+  public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+    return svc.delete(id).map(deleted -> deleted
+        ? ResponseEntity.noContent().<Void>build()
+        : ResponseEntity.notFound().<Void>build());
+  }
+}
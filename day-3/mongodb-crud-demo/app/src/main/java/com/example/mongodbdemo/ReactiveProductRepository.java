@@ -0,0 +1,13 @@
+package com.example.mongodbdemo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+  Mono<Product> findBySku(String sku);
+  Flux<Product> findByPriceBetween(BigDecimal min, BigDecimal max, Pageable pageable);
+}
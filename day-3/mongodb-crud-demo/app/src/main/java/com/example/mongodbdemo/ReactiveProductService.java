@@ -0,0 +1,153 @@
+package com.example.mongodbdemo;
+
+import com.example.mongodbdemo.ProductImporter.Row;
+import com.example.mongodbdemo.ProductImporter.Tally;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.mongodbdemo.ProductQueries.RETURN_NEW;
+import static com.example.mongodbdemo.ProductQueries.byId;
+
+/** Non-blocking counterpart of {@link ProductService} and {@link ProductImporter} for the {@code reactive} profile. */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+  private static final StringDecoder LINES = StringDecoder.textPlainOnly();
+  private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+
+  private final ReactiveProductRepository repo;
+  private final ReactiveMongoTemplate template;
+  private final ObjectReader reader;
+  private final Validator validator;
+  private final int chunkSize;
+
+  public ReactiveProductService(ReactiveProductRepository repo, ReactiveMongoTemplate template, ObjectMapper mapper,
+                                Validator validator, @Value("${app.import.chunk-size:1000}") int chunkSize) {
+    this.repo = repo;
+    this.template = template;
+    this.reader = mapper.readerFor(Product.class);
+    this.validator = validator;
+    this.chunkSize = chunkSize;
+  }
+
+  public Mono<Product> create(Product p) {
+    p.setId(null);
+    p.setCreatedAt(Instant.now());
+    p.setUpdatedAt(Instant.now());
+    return repo.save(p);
+  }
+
+  public Flux<Product> bulkCreate(List<Product> products) {
+    Instant now = Instant.now();
+    products.forEach(p -> { p.setId(null); p.setCreatedAt(now); p.setUpdatedAt(now); });
+    return repo.saveAll(products);
+  }
+
+  public Mono<Product> getById(String id) { return repo.findById(id); }
+  public Mono<Product> getBySku(String sku) { return repo.findBySku(sku); }
+
+  /** Same filters and paging as {@link ProductService#search}, emitted as documents arrive and without a total. */
+  public Flux<Product> search(String nameQuery, SearchMode mode, BigDecimal min, BigDecimal max, int page, int size) {
+    Pageable pageable = PageRequest.of(page, size);
+    if (min == null) min = BigDecimal.ZERO;
+    if (max == null) max = new BigDecimal("999999999");
+    if (StringUtils.hasText(nameQuery)) {
+      Query q = ProductQueries.filter(nameQuery, mode, min, max).with(pageable);
+      if (q instanceof TextQuery tq) tq.sortByScore();
+      return template.find(q, Product.class);
+    }
+    return repo.findByPriceBetween(min, max, pageable);
+  }
+
+  public Mono<CursorPage<Product>> searchAfter(String nameQuery, SearchMode mode, BigDecimal min, BigDecimal max,
+                                               ProductCursor after, int size, boolean withTotal) {
+    Query filter = ProductQueries.filter(nameQuery, mode, min, max);
+    int limit = Math.max(size, 1);
+    Mono<List<Product>> items = template.find(ProductQueries.keysetPage(filter, after, limit), Product.class).collectList();
+    if (!withTotal) return items.map(list -> ProductQueries.cursorPage(list, limit, null));
+    return Mono.zip(items, template.count(filter, Product.class))
+        .map(t -> ProductQueries.cursorPage(t.getT1(), limit, t.getT2()));
+  }
+
+  public Mono<Product> replace(String id, Product p) {
+    return template.findAndModify(byId(id), ProductQueries.replace(p, Instant.now()), RETURN_NEW, Product.class);
+  }
+
+  /** @see ProductService#patch */
+  public Mono<Product> patch(String id, Map<String, Object> fields) {
+    return Mono.fromSupplier(() -> ProductQueries.patch(fields, Instant.now()))
+        .flatMap(u -> template.findAndModify(byId(id), u, RETURN_NEW, Product.class));
+  }
+
+  public Mono<Boolean> delete(String id) {
+    return template.remove(byId(id), Product.class).map(r -> r.getDeletedCount() > 0);
+  }
+
+  /**
+   * Unordered bulk upserts by SKU in chunks of {@code app.import.chunk-size}, like
+   * {@link ProductImporter}. The body is split into raw lines here rather than decoded by WebFlux,
+   * so a malformed line is reported with its line number instead of failing the request.
+   */
+  public Mono<ImportResult> importNdjson(Flux<DataBuffer> body) {
+    return Mono.defer(() -> {
+      Tally tally = new Tally();
+      return LINES.decode(body, STRING, null, Map.of())
+          .index()
+          .<Row>handle((t, sink) -> {
+            Row row = ProductImporter.parse(reader, validator, t.getT1() + 1, t.getT2(), tally);
+            if (row != null) sink.next(row);
+          })
+          .buffer(chunkSize)
+          .concatMap(chunk -> upsert(chunk).doOnNext(r -> {
+            tally.count(r.result());
+            for (BulkWriteError err : r.errors()) {
+              Row row = chunk.get(err.getIndex());
+              tally.fail(row.line(), row.product().getSku(), err.getMessage());
+            }
+          }))
+          .then(Mono.fromSupplier(tally::result));
+    });
+  }
+
+  private record ChunkResult(BulkWriteResult result, List<BulkWriteError> errors) { }
+
+  private Mono<ChunkResult> upsert(List<Row> chunk) {
+    Instant now = Instant.now();
+    ReactiveBulkOperations ops = template.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+    for (Row row : chunk) {
+      ops.upsert(ProductQueries.bySku(row.product().getSku()), ProductQueries.upsert(row.product(), now));
+    }
+    return ops.execute()
+        .map(r -> new ChunkResult(r, List.of()))
+        .onErrorResume(BulkOperationException.class, e -> Mono.just(new ChunkResult(e.getResult(), e.getErrors())))
+        .onErrorResume(MongoBulkWriteException.class,
+            e -> Mono.just(new ChunkResult(e.getWriteResult(), e.getWriteErrors())));
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.mongodbdemo;
+
+import java.util.Locale;
+
+/** How {@code q} is matched against product names. */
+public enum SearchMode {
+  /** Case-insensitive substring match; cannot use an index, scans the collection. */
+  CONTAINS,
+  /** Case-insensitive prefix match on {@code nameLower}; range scan on the {@code nameLower_price} index. */
+  PREFIX,
+  /** Word match through the {@code name} text index, ordered by relevance. */
+  TEXT;
+
+  public static SearchMode from(String value) {
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+}
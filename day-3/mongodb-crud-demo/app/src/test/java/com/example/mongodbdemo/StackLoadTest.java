@@ -0,0 +1,150 @@
+package com.example.mongodbdemo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same read workload against the Spring MVC stack and the WebFlux stack ({@code reactive} profile),
+ * one after the other, over the same embedded mongod, and reports requests/s and p99 latency for each.
+ * Half the requests are SKU lookups, half keyset pages of 20. Both stacks also import the same NDJSON feed,
+ * which must report its malformed line identically. Prints a report to stdout; only correctness is asserted.
+ * Flapdoodle downloads a mongod binary on first use, so the test is opt-in:
+ * {@code mvn test -Dtest=StackLoadTest -Dloadtest=true}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class StackLoadTest {
+
+  private static final int PRODUCTS = 10_000;
+  private static final int CLIENTS = 64;
+  private static final int WARMUP = 5_000;
+  private static final int REQUESTS = 50_000;
+  private static final long MALFORMED_LINE = 5_001;
+
+  private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+  private static String mongoUri;
+
+  private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private record Run(String stack, int requests, long millis, long p99Micros, int errors) {
+    double perSecond() { return requests * 1000.0 / Math.max(millis, 1); }
+  }
+
+  @BeforeAll
+  static void startMongo() {
+    mongod = Mongod.instance().start(Version.Main.V7_0);
+    ServerAddress address = mongod.current().getServerAddress();
+    mongoUri = "mongodb://" + address.getHost() + ":" + address.getPort() + "/loadtest";
+  }
+
+  @AfterAll
+  static void stopMongo() {
+    if (mongod != null) mongod.close();
+  }
+
+  @Test
+  void comparesMvcAndWebFluxThroughputAndP99() throws Exception {
+    Run mvc = run("mvc");
+    Run webflux = run("webflux", "reactive");
+
+    for (Run r : List.of(mvc, webflux)) {
+      System.out.printf("%-8s %d requests from %d clients in %d ms: %.0f req/s, p99 %.2f ms%n",
+          r.stack(), r.requests(), CLIENTS, r.millis(), r.perSecond(), r.p99Micros() / 1000.0);
+      assertThat(r.errors()).as(r.stack() + " failed requests").isZero();
+    }
+  }
+
+  private Run run(String stack, String... profiles) throws Exception {
+    try (ConfigurableApplicationContext app = new SpringApplicationBuilder(MongodbCrudDemoApplication.class)
+        .profiles(profiles)
+        .properties("server.port=0", "spring.data.mongodb.uri=" + mongoUri, "spring.data.mongodb.database=loadtest")
+        .run()) {
+      String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api/products";
+      importFeed(base);
+      load(stack, base, WARMUP);
+      return load(stack, base, REQUESTS);
+    }
+  }
+
+  /** Upserts the same feed on both stacks: the first run inserts it, the second updates it. */
+  private void importFeed(String base) throws Exception {
+    StringBuilder ndjson = new StringBuilder(PRODUCTS * 80);
+    for (int i = 1; i <= PRODUCTS; i++) {
+      if (i == MALFORMED_LINE) {
+        ndjson.append("{\"name\":\"broken\",\n");
+        continue;
+      }
+      ndjson.append("{\"name\":\"Product ").append(i).append("\",\"sku\":\"SKU-").append(i)
+          .append("\",\"price\":").append(i % 1000).append(".99}\n");
+    }
+    HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/bulk"))
+        .header("Content-Type", "application/x-ndjson")
+        .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+        .build(), HttpResponse.BodyHandlers.ofString());
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    ImportResult result = mapper.readValue(response.body(), ImportResult.class);
+    assertThat(result.received()).isEqualTo(PRODUCTS);
+    assertThat(result.inserted() + result.updated()).isEqualTo(PRODUCTS - 1);
+    assertThat(result.errors()).singleElement().satisfies(e -> assertThat(e.line()).isEqualTo(MALFORMED_LINE));
+  }
+
+  private Run load(String stack, String base, int requests) throws Exception {
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger errors = new AtomicInteger();
+    long[] micros = new long[requests];
+    long started = System.nanoTime();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> running = new ArrayList<>(CLIENTS);
+      for (int c = 0; c < CLIENTS; c++) {
+        running.add(clients.submit(() -> {
+          int i;
+          while ((i = next.getAndIncrement()) < requests) {
+            URI uri = URI.create(i % 2 == 0
+                ? base + "/sku/SKU-" + ThreadLocalRandom.current().nextInt(1, PRODUCTS + 1)
+                : base + "/cursor?size=20&min=" + ThreadLocalRandom.current().nextInt(0, 990));
+            long t0 = System.nanoTime();
+            try {
+              HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri).GET().build(),
+                  HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() != 200 && response.statusCode() != 404) errors.incrementAndGet();
+            } catch (Exception e) {
+              errors.incrementAndGet();
+            }
+            micros[i] = (System.nanoTime() - t0) / 1_000;
+          }
+          return null;
+        }));
+      }
+      for (Future<?> f : running) f.get();
+    }
+    long millis = (System.nanoTime() - started) / 1_000_000;
+    Arrays.sort(micros);
+    return new Run(stack, requests, millis, micros[(int) Math.ceil(requests * 0.99) - 1], errors.get());
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.shop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Buffers products and ships them to OpenSearch as NDJSON {@code _bulk} requests.
+ * A batch is flushed when it reaches {@code max-actions} documents, {@code max-bytes}
+ * of payload or has waited {@code linger}; at most {@code max-in-flight} bulk requests
+ * run concurrently and the rest of the pipeline is held back by backpressure.
+ */
+@Component
+public class BulkIndexer {
+
+  private static final Logger log = LoggerFactory.getLogger(BulkIndexer.class);
+
+  private final OpenSearchService os;
+  private final int maxActions;
+  private final int maxBytes;
+  private final Duration linger;
+  private final int maxInFlight;
+
+  public BulkIndexer(OpenSearchService os,
+                     @Value("${opensearch.bulk.max-actions:500}") int maxActions,
+                     @Value("${opensearch.bulk.max-bytes:5242880}") int maxBytes,
+                     @Value("${opensearch.bulk.linger:200ms}") Duration linger,
+                     @Value("${opensearch.bulk.max-in-flight:2}") int maxInFlight) {
+    this.os = os;
+    this.maxActions = maxActions;
+    this.maxBytes = maxBytes;
+    this.linger = linger;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Outcome of {@link #indexOrFail}: documents accepted, and ids of the documents that were not, either
+   * because OpenSearch rejected them or because they could not be serialized.
+   */
+  public record Result(long indexed, Set<Long> failedIds) {
+    public boolean complete() { return failedIds.isEmpty(); }
+
+    private Result merge(Result other) {
+      Set<Long> failed = new HashSet<>(failedIds);
+      failed.addAll(other.failedIds);
+      return new Result(indexed + other.indexed, failed);
+    }
+  }
+
+  /** Indexes a finite stream of products in bulk; resolves to the number of documents accepted. */
+  public Mono<Long> index(Flux<Product> products) {
+    return batches(products, new HashSet<>())
+      .flatMap(batch -> send(batch)
+        .map(Result::indexed)
+        .onErrorResume(e -> {
+          log.warn("Bulk request of {} documents failed: {}", batch.size(), e.toString());
+          return Mono.just(0L);
+        }), maxInFlight)
+      .reduce(0L, Long::sum);
+  }
+
+  /**
+   * Like {@link #index(Flux)}, but errors as soon as a bulk request cannot be delivered and reports
+   * the documents rejected item by item, so callers can keep them for a retry.
+   */
+  public Mono<Result> indexOrFail(Flux<Product> products) {
+    return Mono.defer(() -> {
+      Set<Long> unserializable = new HashSet<>();
+      return batches(products, unserializable)
+        .flatMap(this::send, maxInFlight)
+        .reduce(new Result(0, Set.of()), Result::merge)
+        .map(r -> r.merge(new Result(0, unserializable)));
+    });
+  }
+
+  /** Entries grouped for {@code _bulk}; a product that cannot be serialized is skipped and its id added to {@code skipped}. */
+  private Flux<List<byte[]>> batches(Flux<Product> products, Set<Long> skipped) {
+    return products
+      .<byte[]>handle((p, sink) -> {
+        try {
+          sink.next(os.toBulkEntry(p));
+        } catch (RuntimeException e) {
+          log.warn("Skipping product {}: {}", p.getId(), e.toString());
+          skipped.add(p.getId());
+        }
+      })
+      .bufferTimeout(maxActions, linger, true)
+      .concatMapIterable(this::splitByBytes);
+  }
+
+  private Mono<Result> send(List<byte[]> batch) {
+    return os.bulk(batch)
+      .map(failed -> {
+        if (!failed.isEmpty()) log.warn("Bulk request rejected {} of {} documents", failed.size(), batch.size());
+        return new Result(batch.size() - failed.size(), Set.copyOf(failed));
+      });
+  }
+
+  private List<List<byte[]>> splitByBytes(List<byte[]> entries) {
+    List<List<byte[]>> batches = new ArrayList<>();
+    List<byte[]> current = new ArrayList<>();
+    long bytes = 0;
+    for (byte[] e : entries) {
+      if (!current.isEmpty() && bytes + e.length > maxBytes) {
+        batches.add(current);
+        current = new ArrayList<>();
+        bytes = 0;
+      }
+      current.add(e);
+      bytes += e.length;
+    }
+    if (!current.isEmpty()) batches.add(current);
+    return batches;
+  }
+}
@@ -3,32 +3,36 @@ package com.example.shop;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 @Configuration
 public class DataLoader {
 
   @Bean
-  CommandLineRunner seed(ProductRepository repo, OpenSearchService os) {
+  CommandLineRunner seed(ProductRepository repo, OpenSearchService os, BulkIndexer indexer, ReindexJob reindex) {
     return args -> {
       os.ensureIndex().block();
       if (repo.count() == 0) {
         Random r = new Random(42);
         String[] cats = {"Books","Electronics","Clothing","Home","Toys"};
+        List<Product> seeded = new ArrayList<>();
         for (int i=1; i<=100; i++) {
           Product p = new Product();
           p.setName("Product " + i);
           p.setCategory(cats[r.nextInt(cats.length)]);
           p.setPrice(BigDecimal.valueOf(5 + r.nextInt(500) + r.nextDouble()));
           p.setDescription("Seed product " + i + " for OpenSearch demo.");
-          Product saved = repo.save(p);
-          os.indexProduct(saved).block();
+          seeded.add(repo.save(p));
         }
+        indexer.index(Flux.fromIterable(seeded)).block();
         System.out.println("Seeded 100 products and indexed into OpenSearch.");
       } else {
-        repo.findAll().forEach(p -> os.indexProduct(p).subscribe());
+        reindex.start();
       }
     };
   }
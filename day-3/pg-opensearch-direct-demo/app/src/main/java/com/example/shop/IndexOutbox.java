@@ -0,0 +1,40 @@
+package com.example.shop;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.Instant;
+
+@Entity
+@Table(name = "index_outbox")
+public class IndexOutbox {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  @Column(nullable = false)
+  private Long productId;
+  private String previousCategory;
+  @Column(nullable = false)
+  private Instant createdAt;
+  @Column(nullable = false)
+  @ColumnDefault("0")
+  private int attempts;
+
+  public IndexOutbox() { }
+
+  public IndexOutbox(Long productId, String previousCategory) {
+    this.productId = productId;
+    this.previousCategory = previousCategory;
+    this.createdAt = Instant.now();
+  }
+
+  public Long getId() { return id; }
+  public void setId(Long id) { this.id = id; }
+  public Long getProductId() { return productId; }
+  public void setProductId(Long productId) { this.productId = productId; }
+  public String getPreviousCategory() { return previousCategory; }
+  public void setPreviousCategory(String previousCategory) { this.previousCategory = previousCategory; }
+  public Instant getCreatedAt() { return createdAt; }
+  public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+  public int getAttempts() { return attempts; }
+  public void setAttempts(int attempts) { this.attempts = attempts; }
+}
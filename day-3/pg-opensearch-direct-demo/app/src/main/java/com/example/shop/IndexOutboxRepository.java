@@ -0,0 +1,11 @@
+package com.example.shop;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface IndexOutboxRepository extends JpaRepository<IndexOutbox, Long> {
+  /** Head of the outbox, skipping rows parked after {@code maxAttempts} failed deliveries. */
+  List<IndexOutbox> findAllByAttemptsLessThanOrderByIdAsc(int maxAttempts, Limit limit);
+}
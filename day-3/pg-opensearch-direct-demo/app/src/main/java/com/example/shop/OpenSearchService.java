@@ -1,17 +1,27 @@
 package com.example.shop;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class OpenSearchService {
 
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
   private final WebClient web;
   private final ObjectMapper mapper;
 
@@ -45,23 +55,75 @@ public class OpenSearchService {
       });
   }
 
-  public Mono<Void> indexProduct(Product p) {
-    String url = osUrl + "/" + index + "/_doc/" + p.getId();
-    Map<String, Object> doc = Map.of(
-      "id", p.getId(),
-      "name", p.getName(),
-      "category", p.getCategory(),
-      "price", p.getPrice(),
-      "description", p.getDescription()
-    );
-    return web.put().uri(url).contentType(MediaType.APPLICATION_JSON)
-      .bodyValue(doc).retrieve().bodyToMono(String.class).then();
+  /** Action + source lines for one product in a {@code _bulk} request, newline-terminated. */
+  public byte[] toBulkEntry(Product p) {
+    try {
+      String action = mapper.writeValueAsString(Map.of("index", Map.of("_id", String.valueOf(p.getId()))));
+      String source = mapper.writeValueAsString(toDoc(p));
+      return (action + "\n" + source + "\n").getBytes(StandardCharsets.UTF_8);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize product " + p.getId(), e);
+    }
+  }
+
+  /**
+   * Sends pre-serialized entries as one NDJSON {@code _bulk} request; resolves to the ids of the items
+   * OpenSearch rejected (e.g. {@code es_rejected_execution} under load), which a 200 response can still carry.
+   */
+  public Mono<List<Long>> bulk(List<byte[]> entries) {
+    String url = osUrl + "/" + index + "/_bulk";
+    int length = entries.stream().mapToInt(e -> e.length).sum();
+    byte[] body = new byte[length];
+    int pos = 0;
+    for (byte[] e : entries) {
+      System.arraycopy(e, 0, body, pos, e.length);
+      pos += e.length;
+    }
+    return web.post().uri(url).contentType(NDJSON)
+      .bodyValue(body).retrieve().bodyToMono(JsonNode.class)
+      .map(OpenSearchService::failedItems);
+  }
+
+  /** Source document; a field the product leaves unset is sent as {@code null} rather than failing the row. */
+  private static Map<String, Object> toDoc(Product p) {
+    Map<String, Object> doc = new LinkedHashMap<>();
+    doc.put("id", p.getId());
+    doc.put("name", p.getName());
+    doc.put("category", p.getCategory());
+    doc.put("price", p.getPrice());
+    doc.put("description", p.getDescription());
+    return doc;
+  }
+
+  private static List<Long> failedItems(JsonNode resp) {
+    if (!resp.path("errors").asBoolean(false)) return List.of();
+    List<Long> failed = new ArrayList<>();
+    for (JsonNode item : resp.path("items")) {
+      JsonNode result = item.path("index");
+      if (result.has("error")) failed.add(result.path("_id").asLong());
+    }
+    return failed;
   }
 
   public Mono<String> search(String q, int size) {
     String url = osUrl + "/" + index + "/_search";
-    Map<String, Object> payload = Map.of("query", Map.of("query_string", Map.of("query", q)), "size", size);
     return web.post().uri(url).contentType(MediaType.APPLICATION_JSON)
-      .bodyValue(payload).retrieve().bodyToMono(String.class);
+      .bodyValue(searchPayload(q, size)).retrieve().bodyToMono(String.class);
+  }
+
+  /** Same query as {@link #search}, decoded hit by hit while the response is still arriving. */
+  public Flux<ProductHit> searchHits(String q, int size) {
+    String url = osUrl + "/" + index + "/_search";
+    return Flux.defer(() -> {
+      SearchHitDecoder decoder = new SearchHitDecoder(mapper);
+      return web.post().uri(url).contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(searchPayload(q, size)).retrieve().bodyToFlux(DataBuffer.class)
+        .concatMapIterable(decoder::decode)
+        .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.complete())));
+    });
+  }
+
+  private static Map<String, Object> searchPayload(String q, int size) {
+    return Map.of("query", Map.of("query_string", Map.of("query", q)), "size", size);
   }
 }
@@ -0,0 +1,99 @@
+package com.example.shop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code index_outbox} into OpenSearch. Each batch is collapsed to its
+ * distinct product ids and the current row for each id is indexed once, so a
+ * product updated many times between polls costs a single document write.
+ * Outbox rows are only deleted once their document was accepted: a bulk request
+ * that fails leaves the whole batch in place, and items OpenSearch rejects inside
+ * an otherwise successful response keep their rows for the next poll. Re-sending
+ * a document is idempotent, so delivery is at-least-once. A row whose document keeps
+ * failing (rejected by a mapping, say, or not serializable) is retried on later polls and
+ * parked after {@code outbox.max-attempts}, so it cannot hold up the rows behind it; parked
+ * rows stay in the table with their attempt count. Cached searches touching the written
+ * categories are invalidated once the documents are indexed.
+ */
+@Component
+public class OutboxRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+  private final IndexOutboxRepository outbox;
+  private final ProductRepository products;
+  private final BulkIndexer indexer;
+  private final SearchCache searchCache;
+  private final int batchSize;
+  private final int maxAttempts;
+
+  public OutboxRelay(IndexOutboxRepository outbox, ProductRepository products, BulkIndexer indexer,
+                     SearchCache searchCache, @Value("${outbox.batch-size:500}") int batchSize,
+                     @Value("${outbox.max-attempts:10}") int maxAttempts) {
+    this.outbox = outbox;
+    this.products = products;
+    this.indexer = indexer;
+    this.searchCache = searchCache;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.poll-interval:500ms}")
+  public void drain() {
+    try {
+      int relayed;
+      do {
+        relayed = relayBatch();
+      } while (relayed == batchSize);
+    } catch (RuntimeException e) {
+      log.warn("Outbox relay failed, will retry: {}", e.toString());
+    }
+  }
+
+  private int relayBatch() {
+    List<IndexOutbox> batch = outbox.findAllByAttemptsLessThanOrderByIdAsc(maxAttempts, Limit.of(batchSize));
+    if (batch.isEmpty()) return 0;
+    Set<Long> ids = new LinkedHashSet<>();
+    Set<String> categories = new HashSet<>();
+    for (IndexOutbox e : batch) {
+      ids.add(e.getProductId());
+      if (e.getPreviousCategory() != null) categories.add(e.getPreviousCategory());
+    }
+    List<Product> current = products.findAllById(ids);
+    for (Product p : current) categories.add(p.getCategory());
+    BulkIndexer.Result result = indexer.indexOrFail(Flux.fromIterable(current)).block();
+    searchCache.invalidate(categories);
+    if (result.complete()) {
+      outbox.deleteAllInBatch(batch);
+      return batch.size();
+    }
+    Map<Boolean, List<IndexOutbox>> byFailure =
+        batch.stream().collect(Collectors.partitioningBy(e -> result.failedIds().contains(e.getProductId())));
+    List<IndexOutbox> done = byFailure.get(false);
+    List<IndexOutbox> failed = byFailure.get(true);
+    outbox.deleteAllInBatch(done);
+    for (IndexOutbox e : failed) {
+      e.setAttempts(e.getAttempts() + 1);
+      if (e.getAttempts() >= maxAttempts) {
+        log.error("Parking outbox row {} for product {} after {} failed attempts", e.getId(), e.getProductId(),
+            e.getAttempts());
+      }
+    }
+    outbox.saveAll(failed);
+    log.warn("{} products were not indexed, keeping their outbox rows for the next poll", result.failedIds().size());
+    return done.size();
+  }
+}
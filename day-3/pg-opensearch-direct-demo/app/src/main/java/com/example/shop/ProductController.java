@@ -1,7 +1,10 @@
 package com.example.shop;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -13,11 +16,16 @@ public class ProductController {
   private final ProductRepository repo;
   private final ProductService svc;
   private final OpenSearchService os;
+  private final SearchCache searchCache;
+  private final ReindexJob reindex;
 
-  public ProductController(ProductRepository repo, ProductService svc, OpenSearchService os) {
+  public ProductController(ProductRepository repo, ProductService svc, OpenSearchService os,
+                           SearchCache searchCache, ReindexJob reindex) {
     this.repo = repo;
     this.svc = svc;
     this.os = os;
+    this.searchCache = searchCache;
+    this.reindex = reindex;
   }
 
   @GetMapping("/products")
@@ -32,6 +40,21 @@ public class ProductController {
   @GetMapping("/search")
   public Mono<String> search(@RequestParam(defaultValue="*") String q,
                              @RequestParam(defaultValue="10") int size) {
-    return os.search(q, size);
+    return searchCache.search(q, size);
   }
+
+  @GetMapping(value="/search/hits", produces={MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<ProductHit> searchHits(@RequestParam(defaultValue="*") String q,
+                                     @RequestParam(defaultValue="10") int size) {
+    return os.searchHits(q, size);
+  }
+
+  @PostMapping("/reindex")
+  public ResponseEntity<ReindexJob.Status> startReindex() {
+    HttpStatus code = reindex.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+    return ResponseEntity.status(code).body(reindex.status());
+  }
+
+  @GetMapping("/reindex")
+  public ReindexJob.Status reindexStatus() { return reindex.status(); }
 }
@@ -0,0 +1,5 @@
+package com.example.shop;
+
+import java.math.BigDecimal;
+
+public record ProductHit(String id, Double score, String name, String category, BigDecimal price, String description) { }
@@ -1,4 +1,10 @@
 package com.example.shop;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-public interface ProductRepository extends JpaRepository<Product, Long> { }
+
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<Product, Long> {
+  List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+}
@@ -7,29 +7,31 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductService {
 
   private final ProductRepository repo;
-  private final OpenSearchService os;
+  private final IndexOutboxRepository outbox;
 
-  public ProductService(ProductRepository repo, OpenSearchService os) {
+  public ProductService(ProductRepository repo, IndexOutboxRepository outbox) {
     this.repo = repo;
-    this.os = os;
+    this.outbox = outbox;
   }
 
   @Transactional
   public Product create(Product p) {
     Product saved = repo.save(p);
-    os.indexProduct(saved).subscribe();
+    outbox.save(new IndexOutbox(saved.getId(), null));
     return saved;
   }
 
   @Transactional
   public Product update(Long id, Product patch) {
     Product p = repo.findById(id).orElseThrow();
+    String previousCategory = p.getCategory();
     if (patch.getName()!=null) p.setName(patch.getName());
     if (patch.getCategory()!=null) p.setCategory(patch.getCategory());
     if (patch.getPrice()!=null) p.setPrice(patch.getPrice());
     if (patch.getDescription()!=null) p.setDescription(patch.getDescription());
     Product saved = repo.save(p);
-    os.indexProduct(saved).subscribe();
+    boolean moved = previousCategory != null && !previousCategory.equals(saved.getCategory());
+    outbox.save(new IndexOutbox(saved.getId(), moved ? previousCategory : null));
     return saved;
   }
 }
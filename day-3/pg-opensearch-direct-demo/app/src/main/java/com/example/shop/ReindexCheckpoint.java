@@ -0,0 +1,26 @@
+package com.example.shop;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "reindex_checkpoints")
+public class ReindexCheckpoint {
+  @Id
+  private String job;
+  private Long lastId;
+  private long indexed;
+  private boolean completed;
+  private Instant updatedAt;
+
+  public String getJob() { return job; }
+  public void setJob(String job) { this.job = job; }
+  public Long getLastId() { return lastId; }
+  public void setLastId(Long lastId) { this.lastId = lastId; }
+  public long getIndexed() { return indexed; }
+  public void setIndexed(long indexed) { this.indexed = indexed; }
+  public boolean isCompleted() { return completed; }
+  public void setCompleted(boolean completed) { this.completed = completed; }
+  public Instant getUpdatedAt() { return updatedAt; }
+  public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
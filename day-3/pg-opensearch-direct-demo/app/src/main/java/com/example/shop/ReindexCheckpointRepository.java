@@ -0,0 +1,4 @@
+package com.example.shop;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+public interface ReindexCheckpointRepository extends JpaRepository<ReindexCheckpoint, String> { }
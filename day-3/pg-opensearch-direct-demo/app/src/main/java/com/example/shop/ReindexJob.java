@@ -0,0 +1,146 @@
+package com.example.shop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Full re-index of the {@code products} table into OpenSearch.
+ * Rows are read in keyset pages ({@code id > lastId ORDER BY id}), so only
+ * {@code page-size * pages-in-flight} entities are on the heap at any time.
+ * The last id of every page acknowledged by OpenSearch is committed to
+ * {@code reindex_checkpoints}; an interrupted run resumes after that id.
+ * A page counts as acknowledged only when every document in it was accepted:
+ * a page with rejected items is re-sent up to {@code page-retries} times with
+ * backoff, after which the run aborts without moving the checkpoint past it.
+ */
+@Component
+public class ReindexJob {
+
+  public record Status(boolean running, Long lastId, long scanned, long indexed, double rowsPerSecond) {}
+
+  private record Page(Long lastId, int rows, long indexed) {}
+
+  static final String JOB = "products";
+
+  private static final Logger log = LoggerFactory.getLogger(ReindexJob.class);
+
+  private final ProductRepository repo;
+  private final ReindexCheckpointRepository checkpoints;
+  private final BulkIndexer indexer;
+  private final int pageSize;
+  private final int pagesInFlight;
+  private final Duration reportEvery;
+  private final int pageRetries;
+  private final Duration retryBackoff;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private volatile Status status = new Status(false, null, 0, 0, 0);
+
+  public ReindexJob(ProductRepository repo, ReindexCheckpointRepository checkpoints, BulkIndexer indexer,
+                    @Value("${reindex.page-size:1000}") int pageSize,
+                    @Value("${reindex.pages-in-flight:2}") int pagesInFlight,
+                    @Value("${reindex.report-every:5s}") Duration reportEvery,
+                    @Value("${reindex.page-retries:3}") int pageRetries,
+                    @Value("${reindex.retry-backoff:1s}") Duration retryBackoff) {
+    this.repo = repo;
+    this.checkpoints = checkpoints;
+    this.indexer = indexer;
+    this.pageSize = pageSize;
+    this.pagesInFlight = pagesInFlight;
+    this.reportEvery = reportEvery;
+    this.pageRetries = pageRetries;
+    this.retryBackoff = retryBackoff;
+  }
+
+  public Status status() { return status; }
+
+  /** Starts the job in the background unless it is already running. */
+  public boolean start() {
+    if (!running.compareAndSet(false, true)) return false;
+    run().doFinally(s -> running.set(false))
+      .subscribe(cp -> log.info("Re-index finished: {} rows indexed, last id {}", cp.getIndexed(), cp.getLastId()),
+                 e -> log.error("Re-index aborted at id {}: {}", status.lastId(), e.toString()));
+    return true;
+  }
+
+  private Mono<ReindexCheckpoint> run() {
+    return Mono.fromCallable(this::openCheckpoint).subscribeOn(Schedulers.boundedElastic())
+      .flatMap(cp -> {
+        long startedAt = System.nanoTime();
+        long[] scanned = {0};
+        long[] lastReport = {startedAt};
+        if (cp.getLastId() > 0) log.info("Resuming re-index after id {}", cp.getLastId());
+        return page(cp.getLastId())
+          .expand(rows -> rows.size() < pageSize ? Mono.empty() : page(rows.get(rows.size() - 1).getId()))
+          .filter(rows -> !rows.isEmpty())
+          .flatMapSequential(this::indexPage, pagesInFlight, 1)
+          .concatMap(p -> Mono.fromCallable(() -> commit(cp, p)).subscribeOn(Schedulers.boundedElastic()))
+          .doOnNext(saved -> {
+            scanned[0] += saved.rows();
+            long now = System.nanoTime();
+            double rate = scanned[0] / Math.max((now - startedAt) / 1e9, 1e-3);
+            status = new Status(true, cp.getLastId(), scanned[0], cp.getIndexed(), rate);
+            if (now - lastReport[0] >= reportEvery.toNanos()) {
+              lastReport[0] = now;
+              log.info("Re-index progress: {} rows, last id {}, {} rows/s", scanned[0], cp.getLastId(), Math.round(rate));
+            }
+          })
+          .then(Mono.fromCallable(() -> finish(cp)).subscribeOn(Schedulers.boundedElastic()))
+          .doOnTerminate(() -> status = new Status(false, cp.getLastId(), scanned[0], cp.getIndexed(), status.rowsPerSecond()));
+      });
+  }
+
+  private Mono<Page> indexPage(List<Product> rows) {
+    Long lastId = rows.get(rows.size() - 1).getId();
+    return indexer.indexOrFail(Flux.fromIterable(rows))
+      .flatMap(r -> r.complete()
+        ? Mono.just(new Page(lastId, rows.size(), r.indexed()))
+        : Mono.error(new IllegalStateException(
+            r.failedIds().size() + " documents rejected in page ending at id " + lastId)))
+      .retryWhen(Retry.backoff(pageRetries, retryBackoff)
+        .doBeforeRetry(s -> log.warn("Re-sending page ending at id {}: {}", lastId, s.failure().getMessage()))
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+  }
+
+  private Mono<List<Product>> page(Long afterId) {
+    return Mono.fromCallable(() -> repo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize)))
+      .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private ReindexCheckpoint openCheckpoint() {
+    ReindexCheckpoint cp = checkpoints.findById(JOB).orElseGet(ReindexCheckpoint::new);
+    if (cp.getJob() == null || cp.isCompleted()) {
+      cp.setJob(JOB);
+      cp.setLastId(0L);
+      cp.setIndexed(0);
+      cp.setCompleted(false);
+    }
+    cp.setUpdatedAt(Instant.now());
+    return checkpoints.save(cp);
+  }
+
+  private Page commit(ReindexCheckpoint cp, Page p) {
+    cp.setLastId(p.lastId());
+    cp.setIndexed(cp.getIndexed() + p.indexed());
+    cp.setUpdatedAt(Instant.now());
+    checkpoints.save(cp);
+    return p;
+  }
+
+  private ReindexCheckpoint finish(ReindexCheckpoint cp) {
+    cp.setCompleted(true);
+    cp.setUpdatedAt(Instant.now());
+    return checkpoints.save(cp);
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.shop;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read-through cache for {@code /api/search} responses, keyed by normalized query and size.
+ * Concurrent misses for the same key share one OpenSearch call. Entries whose query is a
+ * conjunction of plain terms pinning {@code category:X} are only invalidated by writes to those
+ * categories; all other entries, including any using wildcard, fuzzy or range syntax, are
+ * invalidated by any write.
+ */
+@Component
+public class SearchCache {
+
+  record Key(String query, int size, Set<String> categories) {}
+
+  private static final Pattern CATEGORY = Pattern.compile("category:(?:\"([^\"]+)\"|([^\\s()\"]+))");
+  // plain terms only: wildcard (* ?), fuzzy (~), range ([ { > <), regex (/) and escapes make the category unknown
+  private static final Pattern TERM = Pattern.compile("\\+?[\\w.:\"]+");
+
+  private final OpenSearchService os;
+  private final AsyncCache<Key, String> cache;
+  private final Counter invalidations;
+
+  public SearchCache(OpenSearchService os, MeterRegistry registry,
+                     @Value("${search.cache.max-size:1000}") long maxSize,
+                     @Value("${search.cache.ttl:30s}") Duration ttl) {
+    this.os = os;
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(ttl)
+      .recordStats()
+      .buildAsync();
+    CaffeineCacheMetrics.monitor(registry, cache, "search");
+    this.invalidations = Counter.builder("search.cache.invalidations")
+      .description("Search cache entries dropped because of product writes")
+      .register(registry);
+  }
+
+  public Mono<String> search(String q, int size) {
+    Key key = key(q, size);
+    return Mono.fromFuture(() -> cache.get(key, (k, executor) -> os.search(k.query(), k.size()).toFuture()), true);
+  }
+
+  /** Drops every entry a write to one of {@code categories} could have changed. */
+  public void invalidate(Collection<String> categories) {
+    cache.synchronous().asMap().keySet().removeIf(k -> {
+      boolean affected = k.categories().isEmpty() || categories.stream().anyMatch(k.categories()::contains);
+      if (affected) invalidations.increment();
+      return affected;
+    });
+  }
+
+  static Key key(String q, int size) {
+    String query = q.trim().replaceAll("\\s+", " ");
+    Set<String> categories = new TreeSet<>();
+    Matcher m = CATEGORY.matcher(query);
+    while (m.find()) categories.add(m.group(1) != null ? m.group(1) : m.group(2));
+    if (!isConjunction(query)) categories.clear();
+    return new Key(query, size, categories);
+  }
+
+  /** query_string defaults to OR, so only explicit {@code a AND b AND c} chains of plain terms can be narrowed. */
+  private static boolean isConjunction(String query) {
+    String[] tokens = query.split(" ");
+    if (tokens.length % 2 == 0) return false;
+    for (int i = 0; i < tokens.length; i++) {
+      boolean ok = i % 2 == 1 ? tokens[i].equals("AND") : TERM.matcher(tokens[i]).matches();
+      if (!ok) return false;
+    }
+    return true;
+  }
+}
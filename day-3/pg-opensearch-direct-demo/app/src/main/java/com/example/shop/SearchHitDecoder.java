@@ -0,0 +1,115 @@
+package com.example.shop;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally decodes {@code hits.hits[*]} from an OpenSearch {@code _search} response.
+ * DataBuffers are fed to Jackson's non-blocking parser without copying; only the tokens
+ * of the hit currently being read are buffered, so memory does not grow with result size.
+ * One instance per response, not thread-safe.
+ */
+class SearchHitDecoder {
+
+  private final ObjectMapper mapper;
+  private final JsonParser parser;
+  private final ByteBufferFeeder feeder;
+  private TokenBuffer hit;
+  private int depth;
+
+  SearchHitDecoder(ObjectMapper mapper) {
+    this.mapper = mapper;
+    try {
+      this.parser = mapper.getFactory().createNonBlockingByteBufferParser();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+  }
+
+  /** Feeds one chunk of the response and returns the hits it completed. Releases the buffer. */
+  List<ProductHit> decode(DataBuffer buffer) {
+    List<ProductHit> hits = new ArrayList<>();
+    try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+      while (it.hasNext()) {
+        ByteBuffer chunk = it.next();
+        feeder.feedInput(chunk);
+        drain(hits);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+    return hits;
+  }
+
+  /** Signals end of the response; fails if it ended inside a hit. */
+  List<ProductHit> complete() {
+    feeder.endOfInput();
+    List<ProductHit> hits = new ArrayList<>();
+    try {
+      drain(hits);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (hit != null) throw new IllegalStateException("Search response ended inside a hit");
+    return hits;
+  }
+
+  private void drain(List<ProductHit> out) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+      if (hit == null) {
+        if (token == JsonToken.START_OBJECT && isHitObject(parser.getParsingContext())) {
+          hit = new TokenBuffer(parser, null);
+          hit.copyCurrentEvent(parser);
+          depth = 1;
+        }
+        continue;
+      }
+      hit.copyCurrentEvent(parser);
+      if (token.isStructStart()) depth++;
+      else if (token.isStructEnd() && --depth == 0) {
+        out.add(toHit(mapper.readTree(hit.asParser(mapper))));
+        hit = null;
+      }
+    }
+  }
+
+  /** True for an object directly inside {@code $.hits.hits}. */
+  private static boolean isHitObject(JsonStreamContext ctx) {
+    JsonStreamContext array = ctx.getParent();
+    if (array == null || !array.inArray()) return false;
+    JsonStreamContext outer = array.getParent();
+    if (outer == null || !"hits".equals(outer.getCurrentName())) return false;
+    JsonStreamContext root = outer.getParent();
+    return root != null && root.inObject() && "hits".equals(root.getCurrentName())
+      && root.getParent() != null && root.getParent().inRoot();
+  }
+
+  private static ProductHit toHit(JsonNode node) {
+    JsonNode src = node.path("_source");
+    return new ProductHit(
+      node.path("_id").asText(null),
+      node.path("_score").isNumber() ? node.path("_score").asDouble() : null,
+      src.path("name").asText(null),
+      src.path("category").asText(null),
+      src.path("price").isNumber() ? src.path("price").decimalValue() : null,
+      src.path("description").asText(null)
+    );
+  }
+}
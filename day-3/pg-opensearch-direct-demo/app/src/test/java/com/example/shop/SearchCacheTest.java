@@ -0,0 +1,78 @@
+package com.example.shop;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchCacheTest {
+
+  private OpenSearchService os;
+  private SearchCache cache;
+
+  @BeforeEach
+  void setUp() {
+    os = mock(OpenSearchService.class);
+    when(os.search(anyString(), anyInt())).thenReturn(Mono.just("{}"));
+    cache = new SearchCache(os, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void keyNormalizesWhitespaceAndPinsCategoriesOfAConjunction() {
+    SearchCache.Key key = SearchCache.key("  category:Books   AND  name:java ", 10);
+
+    assertThat(key.query()).isEqualTo("category:Books AND name:java");
+    assertThat(key.categories()).containsExactly("Books");
+    assertThat(SearchCache.key("category:\"Books\" AND category:Toys", 10).categories())
+      .containsExactly("Books", "Toys");
+  }
+
+  @Test
+  void keyLeavesCategoriesUnknownForDisjunctionsAndNonPlainTerms() {
+    assertThat(SearchCache.key("category:Books OR name:java", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:Books name:java", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:Boo* AND x", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:B?oks AND x", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:Books~ AND x", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:[A TO C] AND x", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:>Books AND x", 10).categories()).isEmpty();
+    assertThat(SearchCache.key("category:/Boo.*/ AND x", 10).categories()).isEmpty();
+  }
+
+  @Test
+  void invalidateDropsOnlyEntriesForTheWrittenCategories() {
+    cache.search("category:Books AND java", 10).block();
+    cache.search("category:Toys AND lego", 10).block();
+
+    cache.invalidate(Set.of("Books"));
+    cache.search("category:Books AND java", 10).block();
+    cache.search("category:Toys AND lego", 10).block();
+
+    verify(os, times(2)).search("category:Books AND java", 10);
+    verify(os, times(1)).search("category:Toys AND lego", 10);
+  }
+
+  @Test
+  void invalidateDropsEntriesWithUnknownCategoriesOnAnyWrite() {
+    cache.search("category:Boo* AND java", 10).block();
+    cache.search("java", 10).block();
+
+    cache.invalidate(Set.of("Books"));
+    cache.search("category:Boo* AND java", 10).block();
+    cache.search("java", 10).block();
+
+    verify(os, times(2)).search("category:Boo* AND java", 10);
+    verify(os, times(2)).search("java", 10);
+  }
+}
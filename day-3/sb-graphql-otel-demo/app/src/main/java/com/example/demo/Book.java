@@ -1,20 +1,26 @@
 package com.example.demo;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-public class Book {
+@Table(indexes = @Index(name = "idx_book_created_at_id", columnList = "createdAt, id"))
+public class Book implements Persistable<UUID> {
+    // assigned here rather than by the database so inserts need no id round-trip and can be JDBC-batched
     @Id
-    @GeneratedValue
-    private UUID id;
+    private UUID id = UUID.randomUUID();
 
     private String title;
     private String author;
     private int pages;
     private Instant createdAt = Instant.now();
 
+    @Transient
+    private boolean isNew = true;
+
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
@@ -29,4 +35,12 @@ public class Book {
 
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    /** Lets {@code save} persist instead of merging (which would first SELECT the pre-assigned id). */
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() { this.isNew = false; }
 }
@@ -0,0 +1,15 @@
+package com.example.demo;
+
+import java.util.UUID;
+
+/** A committed change to a book; {@code book} is the new state, or {@code null} for deletes. */
+public record BookChange(Type type, UUID id, Book book) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    static BookChange created(Book book) { return new BookChange(Type.CREATED, book.getId(), book); }
+
+    static BookChange updated(Book book) { return new BookChange(Type.UPDATED, book.getId(), book); }
+
+    static BookChange deleted(UUID id) { return new BookChange(Type.DELETED, id, null); }
+}
@@ -0,0 +1,70 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed {@link BookChange}s out to subscribers. The hub never waits for a subscriber:
+ * each one drains its own buffer of {@code buffer-size} events, and when that buffer is full the
+ * {@code overflow} strategy either drops the oldest event or disconnects the subscriber.
+ */
+@Component
+public class BookChangeHub {
+
+    public enum Overflow { DROP_OLDEST, DISCONNECT }
+
+    /** Ends a subscription whose buffer overflowed under {@link Overflow#DISCONNECT}. */
+    public static class SlowSubscriberException extends IllegalStateException {
+        SlowSubscriberException(int bufferSize) {
+            super("Subscriber fell more than " + bufferSize + " changes behind");
+        }
+    }
+
+    private final Sinks.Many<BookChange> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+
+    public BookChangeHub(@Value("${app.graphql.subscriptions.buffer-size:256}") int bufferSize,
+                         @Value("${app.graphql.subscriptions.overflow:drop-oldest}") Overflow overflow,
+                         MeterRegistry registry) {
+        this.bufferSize = bufferSize;
+        this.overflow = overflow;
+        Gauge.builder("app_graphql_subscribers", subscribers, AtomicInteger::get)
+                .description("Open bookChanged subscriptions")
+                .register(registry);
+        this.dropped = Counter.builder("app_book_changes_dropped_total")
+                .description("Book change events dropped for subscribers whose buffer was full")
+                .tag("overflow", overflow.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+
+    /** Called once the publishing transaction has committed; rolled-back changes are never seen. */
+    @TransactionalEventListener
+    public synchronized void publish(BookChange change) {
+        // emission is serialized here; FAIL_ZERO_SUBSCRIBER just means nobody is listening
+        sink.tryEmitNext(change);
+    }
+
+    public Flux<BookChange> changes() {
+        BufferOverflowStrategy strategy = overflow == Overflow.DROP_OLDEST
+                ? BufferOverflowStrategy.DROP_OLDEST : BufferOverflowStrategy.ERROR;
+        return sink.asFlux()
+                .onBackpressureBuffer(bufferSize, change -> dropped.increment(), strategy)
+                .onErrorMap(Exceptions::isOverflow, e -> new SlowSubscriberException(bufferSize))
+                .doOnSubscribe(s -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.demo;
+
+/** Optional book criteria; null fields do not restrict. */
+public record BookFilter(String author, String titleContains, Integer minPages, Integer maxPages) { }
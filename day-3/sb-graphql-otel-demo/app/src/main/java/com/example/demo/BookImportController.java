@@ -0,0 +1,104 @@
+package com.example.demo;
+
+import com.example.demo.graphql.dto.CreateBookInput;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams an NDJSON body of {@code {"title","author","pages"}} lines into the books table.
+ * Every {@code chunk-size} lines are committed in their own transaction, so memory stays flat
+ * and an interrupted import keeps the chunks committed before the failure.
+ * Malformed lines and lines with a blank title or author or without pages are skipped and reported
+ * (the first {@value #MAX_REPORTED_ERRORS}). If a chunk cannot be written the import stops with a 500
+ * whose body still carries the count of books committed before it.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookImportController {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportController.class);
+
+    public record ImportResult(long imported, long rejected, int chunks, long millis, List<LineError> errors) { }
+
+    public record LineError(long line, String message) { }
+
+    private final BookService service;
+    private final ObjectReader reader;
+    private final int chunkSize;
+
+    public BookImportController(BookService service, ObjectMapper mapper,
+                                @Value("${app.books.import.chunk-size:5000}") int chunkSize) {
+        this.service = service;
+        this.reader = mapper.readerFor(CreateBookInput.class);
+        this.chunkSize = chunkSize;
+    }
+
+    @PostMapping(path = "/import", consumes = { "application/x-ndjson", "application/json" })
+    public ResponseEntity<ImportResult> importBooks(InputStream body) throws IOException {
+        long started = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        int chunks = 0;
+        List<LineError> errors = new ArrayList<>();
+        List<Book> chunk = new ArrayList<>(chunkSize);
+        BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String text;
+        long line = 0;
+        try {
+            while ((text = in.readLine()) != null) {
+                line++;
+                if (text.isBlank()) continue;
+                String problem;
+                try {
+                    CreateBookInput input = reader.readValue(text);
+                    problem = input == null ? "not an object" : String.join("; ", input.problems());
+                    if (problem.isEmpty()) {
+                        chunk.add(input.toBook());
+                        if (chunk.size() == chunkSize) {
+                            imported += service.createAll(chunk).size();
+                            chunks++;
+                            chunk = new ArrayList<>(chunkSize);
+                        }
+                        continue;
+                    }
+                } catch (JsonProcessingException e) {
+                    problem = "malformed JSON: " + e.getOriginalMessage();
+                }
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new LineError(line, problem));
+            }
+            if (!chunk.isEmpty()) {
+                imported += service.createAll(chunk).size();
+                chunks++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Book import stopped at line {} after committing {} books", line, imported, e);
+            errors.add(new LineError(line, "chunk of " + chunk.size() + " books was not written: " + e.getMessage()));
+            return ResponseEntity.internalServerError()
+                    .body(new ImportResult(imported, rejected, chunks, millisSince(started), errors));
+        }
+        return ResponseEntity.ok(new ImportResult(imported, rejected, chunks, millisSince(started), errors));
+    }
+
+    private static long millisSince(long nanos) {
+        return (System.nanoTime() - nanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/** Column-projected reads; {@code fields} are {@link BookView#FIELDS} names, {@code id} is always fetched. */
+public interface BookProjections {
+
+    List<BookView> findViewsByIdIn(Collection<UUID> ids, Set<String> fields);
+
+    /**
+     * Up to {@code limit} books matching {@code filter} in {@code (createdAt, id)} order, starting
+     * after the given position (or from the start when {@code afterCreatedAt} is null).
+     * {@code createdAt} is always fetched alongside {@code id}.
+     */
+    List<BookView> findViewsAfter(BookFilter filter, Instant afterCreatedAt, UUID afterId, int limit, Set<String> fields);
+
+    long countMatching(BookFilter filter);
+}
@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class BookProjectionsImpl implements BookProjections {
+
+    private final EntityManager em;
+
+    BookProjectionsImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<BookView> findViewsByIdIn(Collection<UUID> ids, Set<String> fields) {
+        if (ids.isEmpty()) return List.of();
+        TypedQuery<Tuple> q = em.createQuery(select(fields) + " where b.id in :ids", Tuple.class);
+        return q.setParameter("ids", ids).getResultList().stream()
+                .map(BookProjectionsImpl::toView).toList();
+    }
+
+    @Override
+    public List<BookView> findViewsAfter(BookFilter filter, Instant afterCreatedAt, UUID afterId, int limit,
+                                         Set<String> fields) {
+        Set<String> withKey = new HashSet<>(fields);
+        withKey.add("createdAt");
+        Map<String, Object> params = new HashMap<>();
+        List<String> where = conditions(filter, params);
+        if (afterCreatedAt != null) {
+            where.add("(b.createdAt > :afterCreatedAt or (b.createdAt = :afterCreatedAt and b.id > :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        TypedQuery<Tuple> q = em.createQuery(select(withKey) + where(where) + " order by b.createdAt, b.id", Tuple.class);
+        params.forEach(q::setParameter);
+        return q.setMaxResults(limit).getResultList().stream()
+                .map(BookProjectionsImpl::toView).toList();
+    }
+
+    @Override
+    public long countMatching(BookFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        TypedQuery<Long> q = em.createQuery("select count(b) from Book b" + where(conditions(filter, params)), Long.class);
+        params.forEach(q::setParameter);
+        return q.getSingleResult();
+    }
+
+    private static List<String> conditions(BookFilter filter, Map<String, Object> params) {
+        List<String> where = new ArrayList<>();
+        if (filter == null) return where;
+        if (filter.author() != null) {
+            where.add("b.author = :author");
+            params.put("author", filter.author());
+        }
+        if (filter.titleContains() != null) {
+            where.add("lower(b.title) like :title escape '\\'");
+            params.put("title", "%" + escapeLike(filter.titleContains().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (filter.minPages() != null) {
+            where.add("b.pages >= :minPages");
+            params.put("minPages", filter.minPages());
+        }
+        if (filter.maxPages() != null) {
+            where.add("b.pages <= :maxPages");
+            params.put("maxPages", filter.maxPages());
+        }
+        return where;
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /** Only whitelisted column names ever reach the JPQL string. */
+    private static String select(Set<String> fields) {
+        return Stream.concat(Stream.of("id"), BookView.FIELDS.stream().filter(fields::contains))
+                .distinct()
+                .map(c -> "b." + c + " as " + c)
+                .collect(Collectors.joining(", ", "select ", " from Book b"));
+    }
+
+    private static BookView toView(Tuple t) {
+        return new BookView(
+                t.get("id", UUID.class),
+                has(t, "title") ? t.get("title", String.class) : null,
+                has(t, "author") ? t.get("author", String.class) : null,
+                has(t, "pages") ? t.get("pages", Integer.class) : null,
+                has(t, "createdAt") ? t.get("createdAt", Instant.class) : null);
+    }
+
+    private static boolean has(Tuple t, String alias) {
+        return t.getElements().stream().anyMatch(e -> alias.equals(e.getAlias()));
+    }
+}
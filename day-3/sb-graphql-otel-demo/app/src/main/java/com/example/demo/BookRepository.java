@@ -3,5 +3,5 @@ package com.example.demo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.UUID;
 
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookProjections {
 }
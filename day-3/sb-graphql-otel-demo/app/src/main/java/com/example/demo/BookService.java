@@ -2,21 +2,37 @@ package com.example.demo;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookService {
     private final BookRepository repo;
+    private final EntityManager em;
+    private final int batchSize;
+    private final ApplicationEventPublisher events;
     private final Counter createdCounter;
 
-    public BookService(BookRepository repo, MeterRegistry registry) {
+    public BookService(BookRepository repo, EntityManager em, ApplicationEventPublisher events, MeterRegistry registry,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
         this.repo = repo;
+        this.em = em;
+        this.events = events;
+        this.batchSize = batchSize;
         this.createdCounter = Counter.builder("app_books_created_total")
-                .description("Total books created via GraphQL mutation")
+                .description("Total books created (GraphQL mutations and NDJSON import)")
                 .register(registry);
     }
 
@@ -28,6 +44,24 @@ public class BookService {
         return repo.findById(id).orElse(null);
     }
 
+    /** One {@code IN (...)} query for all ids; missing ids are absent from the result. */
+    @Transactional(readOnly = true)
+    public Map<UUID, BookView> findViews(Collection<UUID> ids, Set<String> fields) {
+        return repo.findViewsByIdIn(ids, fields).stream()
+                .collect(Collectors.toMap(BookView::id, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookView> findViewsAfter(BookFilter filter, Instant afterCreatedAt, UUID afterId, int limit,
+                                         Set<String> fields) {
+        return repo.findViewsAfter(filter, afterCreatedAt, afterId, limit, fields);
+    }
+
+    @Transactional(readOnly = true)
+    public long count(BookFilter filter) {
+        return repo.countMatching(filter);
+    }
+
     @Transactional
     public Book create(String title, String author, int pages) {
         Book b = new Book();
@@ -36,22 +70,44 @@ public class BookService {
         b.setPages(pages);
         Book saved = repo.save(b);
         createdCounter.increment();
+        events.publishEvent(BookChange.created(saved));
         return saved;
     }
 
+    /**
+     * Inserts all books in one transaction as JDBC batches of {@code hibernate.jdbc.batch_size}.
+     * The persistence context is flushed and cleared after every batch so its size stays flat.
+     */
+    @Transactional
+    public List<Book> createAll(List<Book> books) {
+        for (int i = 0; i < books.size(); i++) {
+            em.persist(books.get(i));
+            events.publishEvent(BookChange.created(books.get(i)));
+            if ((i + 1) % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        createdCounter.increment(books.size());
+        return books;
+    }
+
     @Transactional
     public Book update(UUID id, String title, String author, Integer pages) {
         Book b = repo.findById(id).orElseThrow();
         if (title != null) b.setTitle(title);
         if (author != null) b.setAuthor(author);
         if (pages != null) b.setPages(pages);
-        return repo.save(b);
+        Book saved = repo.save(b);
+        events.publishEvent(BookChange.updated(saved));
+        return saved;
     }
 
     @Transactional
     public boolean delete(UUID id) {
         if (!repo.existsById(id)) return false;
         repo.deleteById(id);
+        events.publishEvent(BookChange.deleted(id));
         return true;
     }
 }
@@ -0,0 +1,14 @@
+package com.example.demo;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only book row holding only the columns a query selected; unselected fields are null.
+ */
+public record BookView(UUID id, String title, String author, Integer pages, Instant createdAt) {
+
+    /** Book attributes that can be projected, in {@link #BookView} constructor order. */
+    public static final List<String> FIELDS = List.of("id", "title", "author", "pages", "createdAt");
+}
@@ -0,0 +1,14 @@
+package com.example.demo.graphql;
+
+import com.example.demo.BookFilter;
+import com.example.demo.BookView;
+
+import java.util.List;
+
+/** {@code totalCount} is resolved separately from {@code filter}, so it is only counted when selected. */
+public record BookConnection(List<Edge> edges, PageInfo pageInfo, BookFilter filter) {
+
+    public record Edge(String cursor, BookView node) { }
+
+    public record PageInfo(boolean hasNextPage, boolean hasPreviousPage, String startCursor, String endCursor) { }
+}
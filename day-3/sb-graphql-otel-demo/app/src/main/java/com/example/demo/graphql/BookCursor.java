@@ -0,0 +1,32 @@
+package com.example.demo.graphql;
+
+import com.example.demo.BookView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Opaque Relay cursor for a {@code (createdAt, id)} keyset position. */
+record BookCursor(Instant createdAt, UUID id) {
+
+    static BookCursor of(BookView b) {
+        return new BookCursor(b.createdAt(), b.id());
+    }
+
+    String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws InvalidArgumentException if {@code cursor} was not produced by {@link #encode()} */
+    static BookCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new BookCursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
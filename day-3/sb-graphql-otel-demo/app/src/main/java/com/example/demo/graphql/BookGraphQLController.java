@@ -1,34 +1,107 @@
 package com.example.demo.graphql;
 
 import com.example.demo.Book;
+import com.example.demo.BookChange;
+import com.example.demo.BookChangeHub;
+import com.example.demo.BookFilter;
 import com.example.demo.BookService;
+import com.example.demo.BookView;
 import com.example.demo.graphql.dto.CreateBookInput;
 import com.example.demo.graphql.dto.UpdateBookInput;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Controller
 public class BookGraphQLController {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_REPORTED_PROBLEMS = 20;
+
     private final BookService service;
+    private final BookChangeHub changes;
 
-    public BookGraphQLController(BookService service) {
+    public BookGraphQLController(BookService service, BookChangeHub changes, BatchLoaderRegistry registry) {
         this.service = service;
+        this.changes = changes;
+        // all bookById lookups of one request become a single IN (...) query over the union of their selections
+        registry.forTypePair(BookKey.class, BookView.class).registerMappedBatchLoader((keys, env) -> {
+            Set<UUID> ids = new HashSet<>();
+            Set<String> fields = new HashSet<>();
+            keys.forEach(k -> { ids.add(k.id()); fields.addAll(k.fields()); });
+            return Mono.fromCallable(() -> {
+                Map<UUID, BookView> views = service.findViews(ids, fields);
+                Map<BookKey, BookView> byKey = new HashMap<>();
+                keys.forEach(k -> { if (views.containsKey(k.id())) byKey.put(k, views.get(k.id())); });
+                return byKey;
+            });
+        });
     }
 
+    /** DataLoader key; the selection is part of it so two selections of the same book are not merged by the cache. */
+    record BookKey(UUID id, Set<String> fields) { }
+
     @QueryMapping
-    public Book bookById(@Argument("id") UUID id) {
-        return service.findById(id);
+    public CompletableFuture<BookView> bookById(@Argument("id") UUID id, DataLoader<BookKey, BookView> loader,
+                                                DataFetchingFieldSelectionSet selection) {
+        return loader.load(new BookKey(id, selectedFields(selection)));
     }
 
+    /** The first {@value #MAX_PAGE_SIZE} books in {@code (createdAt, id)} order; deprecated in favour of the connection. */
     @QueryMapping
-    public List<Book> books() {
-        return service.findAll();
+    public List<BookView> books(DataFetchingFieldSelectionSet selection) {
+        return service.findViewsAfter(null, null, null, MAX_PAGE_SIZE, selectedFields(selection));
+    }
+
+    /**
+     * Relay connection over {@code (createdAt, id)}: each page is one index range scan of at most
+     * {@value #MAX_PAGE_SIZE} rows, independent of how deep the cursor is.
+     */
+    @QueryMapping
+    public BookConnection booksConnection(@Argument("first") Integer first, @Argument("after") String after,
+                                          @Argument("filter") BookFilter filter,
+                                          DataFetchingFieldSelectionSet selection) {
+        int size = Math.clamp(first == null ? DEFAULT_PAGE_SIZE : first, 0, MAX_PAGE_SIZE);
+        BookCursor from = after == null ? null : BookCursor.decode(after);
+        Set<String> fields = selection.getFields("edges/node/*").stream()
+                .map(SelectedField::getName)
+                .filter(BookView.FIELDS::contains)
+                .collect(Collectors.toSet());
+        List<BookView> rows = service.findViewsAfter(filter, from == null ? null : from.createdAt(),
+                from == null ? null : from.id(), size + 1, fields);
+        boolean hasNext = rows.size() > size;
+        List<BookConnection.Edge> edges = rows.stream().limit(size)
+                .map(b -> new BookConnection.Edge(BookCursor.of(b).encode(), b))
+                .toList();
+        BookConnection.PageInfo pageInfo = new BookConnection.PageInfo(hasNext, from != null,
+                edges.isEmpty() ? null : edges.get(0).cursor(),
+                edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor());
+        return new BookConnection(edges, pageInfo, filter);
+    }
+
+    @SchemaMapping(typeName = "BookConnection")
+    public long totalCount(BookConnection connection) {
+        return service.count(connection.filter());
     }
 
     @MutationMapping
@@ -36,6 +109,23 @@ public class BookGraphQLController {
         return service.create(input.title(), input.author(), input.pages());
     }
 
+    @MutationMapping
+    public List<Book> createBooks(@Argument("inputs") List<CreateBookInput> inputs) {
+        // all-or-nothing: reject the whole batch before anything is written
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            for (String problem : inputs.get(i).problems()) {
+                problems.add("inputs[" + i + "]: " + problem);
+            }
+        }
+        if (!problems.isEmpty()) {
+            String shown = String.join("; ", problems.subList(0, Math.min(problems.size(), MAX_REPORTED_PROBLEMS)));
+            throw new InvalidArgumentException(problems.size() > MAX_REPORTED_PROBLEMS
+                    ? shown + "; and " + (problems.size() - MAX_REPORTED_PROBLEMS) + " more" : shown);
+        }
+        return service.createAll(inputs.stream().map(CreateBookInput::toBook).toList());
+    }
+
     @MutationMapping
     public Book updateBook(@Argument("input") UpdateBookInput input) {
         return service.update(input.id(), input.title(), input.author(), input.pages());
@@ -45,4 +135,17 @@ public class BookGraphQLController {
     public boolean deleteBook(@Argument("id") UUID id) {
         return service.delete(id);
     }
+
+    @SubscriptionMapping
+    public Flux<BookChange> bookChanged() {
+        return changes.changes();
+    }
+
+    /** Book columns named in the selection set; {@code __typename} and unknown names are dropped. */
+    static Set<String> selectedFields(DataFetchingFieldSelectionSet selection) {
+        return selection.getImmediateFields().stream()
+                .map(SelectedField::getName)
+                .filter(BookView.FIELDS::contains)
+                .collect(Collectors.toSet());
+    }
 }
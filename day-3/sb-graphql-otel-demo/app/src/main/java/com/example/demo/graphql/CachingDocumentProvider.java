@@ -0,0 +1,70 @@
+package com.example.demo.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Keeps parsed and validated documents in a bounded cache keyed by the SHA-256 of the query text.
+ * Requests carrying an Apollo {@code persistedQuery} extension are looked up by the client's hash,
+ * so after the first registration they only need to send the hash; plain requests are hashed here.
+ */
+public class CachingDocumentProvider implements PreparsedDocumentProvider {
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+    private final ApolloPersistedQuerySupport persisted;
+    private final Timer parseTimer;
+
+    public CachingDocumentProvider(long maxSize, MeterRegistry registry) {
+        this.documents = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.persisted = new ApolloPersistedQuerySupport(this::persistedDocument);
+        this.parseTimer = Timer.builder("graphql.document.parse")
+                .description("Time to parse and validate a GraphQL document on a cache miss")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, documents, "graphql.documents");
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput input, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        Function<ExecutionInput, PreparsedDocumentEntry> timed = in -> parseTimer.record(() -> parseAndValidate.apply(in));
+        if (input.getExtensions() != null && input.getExtensions().get("persistedQuery") instanceof Map) {
+            return persisted.getDocumentAsync(input, timed);
+        }
+        return CompletableFuture.completedFuture(documents.get(sha256(input.getQuery()), k -> timed.apply(input)));
+    }
+
+    private CompletableFuture<PreparsedDocumentEntry> persistedDocument(
+            Object id, ExecutionInput input, PersistedQueryCacheMiss onMiss) {
+        // for hash-only requests onMiss gets no text and throws PersistedQueryNotFound, telling the client to resend the query
+        String key = id.toString().toLowerCase(Locale.ROOT);
+        String text = PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(input.getQuery()) ? "" : input.getQuery();
+        return CompletableFuture.completedFuture(documents.get(key, k -> onMiss.apply(text)));
+    }
+
+    static String sha256(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
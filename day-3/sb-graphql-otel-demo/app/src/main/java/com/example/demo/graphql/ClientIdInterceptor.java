@@ -0,0 +1,41 @@
+package com.example.demo.graphql;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Identifies the caller for {@link QueryCostInstrumentation}: the authenticated principal when there is one,
+ * otherwise the remote address. Nothing the client sends is trusted as its identity, so a caller cannot reset
+ * its budget by changing a header; behind a proxy, enable {@code server.forward-headers-strategy} so the
+ * remote address is the client's.
+ */
+@Component
+public class ClientIdInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String id = clientId(request);
+        request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(QueryCostInstrumentation.CLIENT_ID, id)).build());
+        return chain.next(request);
+    }
+
+    private static String clientId(WebGraphQlRequest request) {
+        // HTTP requests reach interceptors on the servlet thread; WebSocket messages have no servlet request
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            Principal principal = attributes.getRequest().getUserPrincipal();
+            if (principal != null) return "user:" + principal.getName();
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? "ip:" + remote.getAddress().getHostAddress() : "anonymous";
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * One token bucket per client, charged with the cost of each operation. Buckets refill
+ * continuously at {@code refillPerSecond} up to {@code capacity}; idle clients are evicted.
+ */
+public class CostRateLimiter {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private final Cache<String, Bucket> buckets;
+
+    public CostRateLimiter(long capacity, long refillPerSecond, long maxClients) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1e9;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    public boolean tryAcquire(String client, int cost) {
+        return bucket(client).tryAcquire(cost);
+    }
+
+    public long available(String client) {
+        return bucket(client).available();
+    }
+
+    private Bucket bucket(String client) {
+        return buckets.get(client, k -> new Bucket());
+    }
+
+    private final class Bucket {
+        private double tokens = capacity;
+        private long refilledAt = System.nanoTime();
+
+        synchronized boolean tryAcquire(int cost) {
+            refill();
+            if (tokens < cost) return false;
+            tokens -= cost;
+            return true;
+        }
+
+        synchronized long available() {
+            refill();
+            return (long) tokens;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
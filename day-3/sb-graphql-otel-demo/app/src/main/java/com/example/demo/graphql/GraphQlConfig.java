@@ -0,0 +1,76 @@
+package com.example.demo.graphql;
+
+import com.example.demo.BookChangeHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.GraphqlErrorBuilder;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.DataFetcherExceptionResolver;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.execution.SubscriptionExceptionResolver;
+
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public CachingDocumentProvider cachingDocumentProvider(
+            @Value("${app.graphql.document-cache.max-size:1000}") long maxSize, MeterRegistry registry) {
+        return new CachingDocumentProvider(maxSize, registry);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(CachingDocumentProvider provider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(provider));
+    }
+
+    @Bean
+    public FilterRegistrationBean<PersistedQueryRequestFilter> persistedQueryRequestFilter(
+            ObjectMapper mapper, @Value("${spring.graphql.path:/graphql}") String path) {
+        FilterRegistrationBean<PersistedQueryRequestFilter> bean =
+                new FilterRegistrationBean<>(new PersistedQueryRequestFilter(mapper));
+        bean.addUrlPatterns(path);
+        return bean;
+    }
+
+    @Bean
+    public CostRateLimiter costRateLimiter(@Value("${app.graphql.throttle.capacity:5000}") long capacity,
+                                           @Value("${app.graphql.throttle.refill-per-second:500}") long refillPerSecond,
+                                           @Value("${app.graphql.throttle.max-clients:10000}") long maxClients) {
+        return new CostRateLimiter(capacity, refillPerSecond, maxClients);
+    }
+
+    @Bean
+    public QueryCostInstrumentation queryCostInstrumentation(
+            @Value("${app.graphql.cost.max:1000}") int maxCost,
+            @Value("${app.graphql.cost.max-batch-size:5000}") int maxBatchSize,
+            @Value("${app.graphql.cost.batch-rows-per-unit:10}") int batchRowsPerUnit,
+            CostRateLimiter limiter, MeterRegistry registry) {
+        return new QueryCostInstrumentation(maxCost, maxBatchSize, batchRowsPerUnit, limiter, registry);
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${app.graphql.max-depth:10}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /** Client mistakes such as a malformed cursor are BAD_REQUEST errors rather than INTERNAL_ERROR. */
+    @Bean
+    public DataFetcherExceptionResolver invalidArgumentResolver() {
+        return DataFetcherExceptionResolver.forSingleError((e, env) -> e instanceof InvalidArgumentException
+                ? GraphqlErrorBuilder.newError(env).message(e.getMessage()).errorType(ErrorType.BAD_REQUEST).build()
+                : null);
+    }
+
+    /** Tells a disconnected subscriber why, instead of the generic "Subscription error". */
+    @Bean
+    public SubscriptionExceptionResolver slowSubscriberResolver() {
+        return SubscriptionExceptionResolver.forSingleError(e -> e instanceof BookChangeHub.SlowSubscriberException
+                ? GraphqlErrorBuilder.newError().message(e.getMessage()).errorType(ErrorType.BAD_REQUEST).build()
+                : null);
+    }
+}
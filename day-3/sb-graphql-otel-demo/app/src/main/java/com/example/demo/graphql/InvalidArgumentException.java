@@ -0,0 +1,13 @@
+package com.example.demo.graphql;
+
+/** A client-supplied argument the API cannot use; reported as a {@code BAD_REQUEST} GraphQL error. */
+public class InvalidArgumentException extends RuntimeException {
+
+    public InvalidArgumentException(String message) {
+        super(message);
+    }
+
+    public InvalidArgumentException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
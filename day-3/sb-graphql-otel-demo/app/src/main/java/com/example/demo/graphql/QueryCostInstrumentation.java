@@ -0,0 +1,161 @@
+package com.example.demo.graphql;
+
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.OperationDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scores every operation before it runs and rejects it when the score exceeds {@code maxCost}
+ * or when the calling client's token bucket cannot pay for it.
+ * <p>
+ * A field costs its weight plus its children's cost times its list size. A connection's
+ * {@code edges} are sized by the connection's {@code first} argument (capped like the resolver caps it);
+ * {@code Query.books} has no size argument and is sized by the cap its resolver applies.
+ * <p>
+ * Batch mutations (fields with an {@code inputs} list) are priced per insert rather than per returned
+ * object, since the rows they return are already in memory: the mutation weight, one copy of the selection,
+ * and one unit per {@code batchRowsPerUnit} inputs. Their size has its own cap, {@code maxBatchSize}.
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    /** GraphQL context key holding the caller's id, set by {@link ClientIdInterceptor}. */
+    public static final String CLIENT_ID = "clientId";
+
+    private static final int DEFAULT_WEIGHT = 1;
+    private static final int MUTATION_WEIGHT = 10;
+    private static final Map<String, Integer> WEIGHTS = Map.of(
+            "Query.books", 5,
+            "Query.booksConnection", 2,
+            "BookConnection.totalCount", 10); // a separate COUNT(*) over the filter
+
+    private final int maxCost;
+    private final int maxBatchSize;
+    private final int batchRowsPerUnit;
+    private final CostRateLimiter limiter;
+    private final Map<OperationDefinition.Operation, DistributionSummary> costs =
+            new EnumMap<>(OperationDefinition.Operation.class);
+    private final Counter overBudget;
+    private final Counter batchTooLarge;
+    private final Counter throttled;
+
+    public QueryCostInstrumentation(int maxCost, int maxBatchSize, int batchRowsPerUnit,
+                                    CostRateLimiter limiter, MeterRegistry registry) {
+        this.maxCost = maxCost;
+        this.maxBatchSize = maxBatchSize;
+        this.batchRowsPerUnit = batchRowsPerUnit;
+        this.limiter = limiter;
+        for (OperationDefinition.Operation operation : OperationDefinition.Operation.values()) {
+            costs.put(operation, DistributionSummary.builder("app_graphql_query_cost")
+                    .description("Estimated cost of GraphQL operations")
+                    .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.overBudget = rejected(registry, "over_budget");
+        this.batchTooLarge = rejected(registry, "batch_too_large");
+        this.throttled = rejected(registry, "throttled");
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder("app_graphql_rejected_total")
+                .description("GraphQL operations rejected before execution")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext context = parameters.getExecutionContext();
+        Score score = score(context);
+        int cost = score.cost();
+        costs.get(context.getOperationDefinition().getOperation()).record(cost);
+        if (score.largestBatch() > maxBatchSize) {
+            batchTooLarge.increment();
+            throw new AbortExecutionException("Batch of " + score.largestBatch() + " inputs exceeds the limit of "
+                    + maxBatchSize + "; split it or use POST /api/books/import");
+        }
+        if (cost > maxCost) {
+            overBudget.increment();
+            throw new AbortExecutionException("Query cost " + cost + " exceeds the limit of " + maxCost);
+        }
+        String client = context.getGraphQLContext().getOrDefault(CLIENT_ID, "anonymous");
+        if (!limiter.tryAcquire(client, cost)) {
+            throttled.increment();
+            throw new AbortExecutionException("Rate limit exceeded: query cost " + cost + " is more than the "
+                    + limiter.available(client) + " tokens left for this client");
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    record Score(int cost, int largestBatch) { }
+
+    Score score(ExecutionContext context) {
+        QueryTraverser traverser = QueryTraverser.newQueryTraverser()
+                .schema(context.getGraphQLSchema())
+                .document(context.getDocument())
+                .operationName(context.getOperationDefinition().getName())
+                .coercedVariables(context.getCoercedVariables())
+                .build();
+        // post-order: children report their summed cost to the parent environment before the parent is visited
+        Map<QueryVisitorFieldEnvironment, Integer> childCost = new HashMap<>();
+        int[] total = {0};
+        int[] largestBatch = {0};
+        traverser.visitPostOrder(new QueryVisitorStub() {
+            @Override
+            public void visitField(QueryVisitorFieldEnvironment env) {
+                if (env.isTypeNameIntrospectionField()) return;
+                int children = childCost.getOrDefault(env, 0);
+                int cost;
+                if (env.getArguments().get("inputs") instanceof List<?> inputs) {
+                    largestBatch[0] = Math.max(largestBatch[0], inputs.size());
+                    cost = weight(env) + children + Math.ceilDiv(inputs.size(), batchRowsPerUnit);
+                } else {
+                    cost = weight(env) + listSize(env) * children;
+                }
+                if (env.getParentEnvironment() == null) total[0] += cost;
+                else childCost.merge(env.getParentEnvironment(), cost, Integer::sum);
+            }
+        });
+        return new Score(total[0], largestBatch[0]);
+    }
+
+    private int weight(QueryVisitorFieldEnvironment env) {
+        GraphQLFieldsContainer parent = env.getFieldsContainer();
+        if (parent == env.getSchema().getMutationType()) return MUTATION_WEIGHT;
+        return WEIGHTS.getOrDefault(parent.getName() + "." + env.getFieldDefinition().getName(), DEFAULT_WEIGHT);
+    }
+
+    private int listSize(QueryVisitorFieldEnvironment env) {
+        QueryVisitorFieldEnvironment connection = env.getParentEnvironment();
+        if ("edges".equals(env.getFieldDefinition().getName()) && connection != null
+                && connection.getFieldDefinition().getArgument("first") != null) {
+            Object first = connection.getArguments().get("first");
+            int size = first instanceof Number n ? n.intValue() : BookGraphQLController.DEFAULT_PAGE_SIZE;
+            return Math.clamp(size, 0, BookGraphQLController.MAX_PAGE_SIZE);
+        }
+        if (env.getFieldsContainer() == env.getSchema().getQueryType()
+                && "books".equals(env.getFieldDefinition().getName())) {
+            return BookGraphQLController.MAX_PAGE_SIZE;
+        }
+        return 1;
+    }
+}
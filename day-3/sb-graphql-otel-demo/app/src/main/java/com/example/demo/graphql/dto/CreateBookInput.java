@@ -1,3 +1,28 @@
 package com.example.demo.graphql.dto;
 
-public record CreateBookInput(String title, String author, int pages) { }
+import com.example.demo.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** {@code pages} is boxed so a missing value is rejected rather than read as 0. */
+public record CreateBookInput(String title, String author, Integer pages) {
+
+    /** Empty when the input can be persisted; otherwise one message per offending field. */
+    public List<String> problems() {
+        List<String> problems = new ArrayList<>(3);
+        if (title == null || title.isBlank()) problems.add("title is blank");
+        if (author == null || author.isBlank()) problems.add("author is blank");
+        if (pages == null) problems.add("pages is missing");
+        else if (pages < 0) problems.add("pages is negative");
+        return problems;
+    }
+
+    public Book toBook() {
+        Book b = new Book();
+        b.setTitle(title);
+        b.setAuthor(author);
+        b.setPages(pages);
+        return b;
+    }
+}